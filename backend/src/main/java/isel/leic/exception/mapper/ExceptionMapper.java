@@ -89,6 +89,13 @@ public class ExceptionMapper {
         LOGGER.error("File sharing not found: {}", e.getMessage(), e);
         return RestResponse.status(Response.Status.NOT_FOUND, buildErrorMessage("File sharing not found - " + e.getMessage()));
     }
+    @ServerExceptionMapper
+    public RestResponse<String> mapTooManyRequestsException(TooManyRequestsException e) {
+        LOGGER.warn("Too many requests: {}", e.getMessage());
+        return RestResponse.ResponseBuilder.create(Response.Status.TOO_MANY_REQUESTS, buildErrorMessage("Too many requests - " + e.getMessage()))
+                .header("Retry-After", e.getRetryAfterSeconds())
+                .build();
+    }
 
     public String buildErrorMessage(String message){
         return "{\"Error\":\" "+message+"\"}";
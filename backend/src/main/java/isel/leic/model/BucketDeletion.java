@@ -0,0 +1,67 @@
+package isel.leic.model;
+
+import isel.leic.model.storage.BucketDeletionJob;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "bucket_deletion")
+public class BucketDeletion {
+
+    @Id
+    @Column(name = "bucket_name")
+    private String bucketName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BucketDeletionJob.Status status;
+
+    @Column(name = "deleted_objects", nullable = false)
+    private long deletedObjects;
+
+    @Column(name = "failed_objects", nullable = false)
+    private long failedObjects;
+
+    @Column(name = "submitted_at", nullable = false)
+    private Instant submittedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    public BucketDeletion() {
+    }
+
+    public BucketDeletion(String bucketName) {
+        this.bucketName = bucketName;
+        this.status = BucketDeletionJob.Status.PENDING;
+        this.submittedAt = Instant.now();
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public BucketDeletionJob.Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status == BucketDeletionJob.Status.COMPLETED || status == BucketDeletionJob.Status.FAILED;
+    }
+
+    public void update(BucketDeletionJob job) {
+        this.status = job.getStatus();
+        this.deletedObjects = job.getDeletedObjects();
+        this.failedObjects = job.getFailedObjects();
+        this.finishedAt = job.getFinishedAt();
+        this.error = job.getError() == null || job.getError().length() <= 1000 ? job.getError() : job.getError().substring(0, 1000);
+    }
+
+    public BucketDeletionJob toJob() {
+        return new BucketDeletionJob(bucketName, status, deletedObjects, failedObjects, submittedAt, finishedAt, error);
+    }
+}
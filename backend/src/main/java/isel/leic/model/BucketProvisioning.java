@@ -0,0 +1,88 @@
+package isel.leic.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "bucket_provisioning", indexes = {
+        @Index(name = "idx_bucket_provisioning_due", columnList = "status, next_attempt_at")
+})
+public class BucketProvisioning {
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "bucket_name", nullable = false)
+    private String bucketName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    public BucketProvisioning() {
+    }
+
+    public BucketProvisioning(Long userId, String bucketName) {
+        this.userId = userId;
+        this.bucketName = bucketName;
+        this.status = Status.PENDING;
+        this.nextAttemptAt = Instant.now();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError == null || lastError.length() <= 255 ? lastError : lastError.substring(0, 255);
+    }
+}
@@ -3,7 +3,9 @@ package isel.leic.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "file_sharing")
+@Table(name = "file_sharing", indexes = {
+        @Index(name = "idx_file_sharing_authorization", columnList = "shared_by_user_id, shared_to_user_id, filename")
+})
 public class FileSharing {
 
     @Id
@@ -0,0 +1,6 @@
+package isel.leic.model;
+
+import java.util.List;
+
+public record GroupMembershipChange(List<Long> applied, List<Long> skipped) {
+}
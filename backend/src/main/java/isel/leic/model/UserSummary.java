@@ -0,0 +1,4 @@
+package isel.leic.model;
+
+public record UserSummary(Long id, String username) {
+}
@@ -0,0 +1,93 @@
+package isel.leic.model.storage;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BucketDeletionJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String bucketName;
+    private final AtomicLong deletedObjects = new AtomicLong();
+    private final AtomicLong failedObjects = new AtomicLong();
+    private final Instant submittedAt;
+    private volatile Status status = Status.PENDING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public BucketDeletionJob(String bucketName) {
+        this.bucketName = bucketName;
+        this.submittedAt = Instant.now();
+    }
+
+    public BucketDeletionJob(String bucketName, Status status, long deletedObjects, long failedObjects,
+                             Instant submittedAt, Instant finishedAt, String error) {
+        this.bucketName = bucketName;
+        this.status = status;
+        this.deletedObjects.set(deletedObjects);
+        this.failedObjects.set(failedObjects);
+        this.submittedAt = submittedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getDeletedObjects() {
+        return deletedObjects.get();
+    }
+
+    public long getFailedObjects() {
+        return failedObjects.get();
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    public void addDeleted(long count) {
+        deletedObjects.addAndGet(count);
+    }
+
+    public void addFailed(long count) {
+        failedObjects.addAndGet(count);
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,85 @@
+package isel.leic.model.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ByteRange {
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final Long start;
+    private final Long end;
+
+    public ByteRange(Long start, Long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public static List<ByteRange> parse(String rangeHeader) {
+        if (rangeHeader == null || !rangeHeader.trim().startsWith(BYTES_UNIT)) {
+            return Collections.emptyList();
+        }
+        List<ByteRange> ranges = new ArrayList<>();
+        for (String spec : rangeHeader.trim().substring(BYTES_UNIT.length()).split(",")) {
+            String trimmed = spec.trim();
+            int dash = trimmed.indexOf('-');
+            if (dash < 0) {
+                return Collections.emptyList();
+            }
+            try {
+                String first = trimmed.substring(0, dash).trim();
+                String last = trimmed.substring(dash + 1).trim();
+                if (first.isEmpty() && last.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                Long start = first.isEmpty() ? null : Long.parseLong(first);
+                Long end = last.isEmpty() ? null : Long.parseLong(last);
+                if (start != null && end != null && end < start) {
+                    return Collections.emptyList();
+                }
+                ranges.add(new ByteRange(start, end));
+            } catch (NumberFormatException e) {
+                return Collections.emptyList();
+            }
+        }
+        return ranges;
+    }
+
+    public Long getStart() {
+        return start;
+    }
+
+    public Long getEnd() {
+        return end;
+    }
+
+    public boolean isSuffix() {
+        return start == null;
+    }
+
+    public ByteRange resolve(long size) {
+        if (isSuffix()) {
+            if (end == 0 || size == 0) {
+                return null;
+            }
+            return new ByteRange(Math.max(0, size - end), size - 1);
+        }
+        if (start >= size) {
+            return null;
+        }
+        long last = end == null ? size - 1 : Math.min(end, size - 1);
+        return new ByteRange(start, last);
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String toHeaderValue() {
+        return BYTES_UNIT + (start == null ? "" : start) + "-" + (end == null ? "" : end);
+    }
+
+    public String toContentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+}
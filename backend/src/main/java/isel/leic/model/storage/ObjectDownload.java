@@ -0,0 +1,123 @@
+package isel.leic.model.storage;
+
+import io.smallrye.mutiny.Multi;
+import io.vertx.core.buffer.Buffer;
+import jakarta.ws.rs.core.StreamingOutput;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.time.Instant;
+
+public class ObjectDownload {
+    public static final String MULTIPART_BYTERANGES = "multipart/byteranges";
+
+    private int status = 200;
+    private String objectKey;
+    private Long contentLength;
+    private String contentType;
+    private String eTag;
+    private Instant lastModified;
+    private String contentRange;
+    private StreamingOutput body;
+    private Multi<Buffer> content;
+
+    public ObjectDownload() {
+    }
+
+    public static ObjectDownload from(String objectKey, GetObjectResponse response, StreamingOutput body) {
+        ObjectDownload download = new ObjectDownload();
+        download.setObjectKey(objectKey);
+        download.setBody(body);
+        if (response != null) {
+            download.setContentLength(response.contentLength());
+            download.setContentType(response.contentType());
+            download.setETag(response.eTag());
+            download.setLastModified(response.lastModified());
+        }
+        return download;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isMultipart() {
+        return contentType != null && contentType.startsWith(MULTIPART_BYTERANGES);
+    }
+
+    public String getObjectKey() {
+        return objectKey;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public String getContentRange() {
+        return contentRange;
+    }
+
+    public StreamingOutput getBody() {
+        return body;
+    }
+
+    public Multi<Buffer> getContent() {
+        return content;
+    }
+
+    public ObjectDownload setStatus(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public ObjectDownload setObjectKey(String objectKey) {
+        this.objectKey = objectKey;
+        return this;
+    }
+
+    public ObjectDownload setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+        return this;
+    }
+
+    public ObjectDownload setContentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    public ObjectDownload setETag(String eTag) {
+        this.eTag = eTag;
+        return this;
+    }
+
+    public ObjectDownload setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    public ObjectDownload setContentRange(String contentRange) {
+        this.contentRange = contentRange;
+        return this;
+    }
+
+    public ObjectDownload setBody(StreamingOutput body) {
+        this.body = body;
+        return this;
+    }
+
+    public ObjectDownload setContent(Multi<Buffer> content) {
+        this.content = content;
+        return this;
+    }
+}
@@ -0,0 +1,32 @@
+package isel.leic.model.storage;
+
+import java.util.List;
+
+public class ObjectPage {
+    private List<FileObject> objects;
+    private String nextCursor;
+
+    public ObjectPage() {
+    }
+
+    public ObjectPage(List<FileObject> objects, String nextCursor) {
+        this.objects = objects;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<FileObject> getObjects() {
+        return objects;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setObjects(List<FileObject> objects) {
+        this.objects = objects;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,41 @@
+package isel.leic.repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import isel.leic.model.BucketDeletion;
+import isel.leic.model.storage.BucketDeletionJob;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@ApplicationScoped
+public class BucketDeletionRepository implements PanacheRepositoryBase<BucketDeletion, String> {
+
+    private static final List<BucketDeletionJob.Status> UNFINISHED = List.of(BucketDeletionJob.Status.PENDING, BucketDeletionJob.Status.RUNNING);
+    private static final List<BucketDeletionJob.Status> FINISHED = List.of(BucketDeletionJob.Status.COMPLETED, BucketDeletionJob.Status.FAILED);
+
+    public List<String> findUnfinishedBucketNames() {
+        return find("status in ?1", UNFINISHED).stream()
+                .map(BucketDeletion::getBucketName)
+                .toList();
+    }
+
+    public long deleteFinishedBefore(Instant cutoff) {
+        return delete("status in ?1 and finishedAt < ?2", FINISHED, cutoff);
+    }
+
+    @Transactional
+    public void createTable() {
+        getEntityManager()
+                .createNativeQuery("create table if not exists bucket_deletion ("
+                        + "bucket_name varchar(255) not null primary key, "
+                        + "status varchar(255) not null, "
+                        + "deleted_objects bigint not null, "
+                        + "failed_objects bigint not null, "
+                        + "submitted_at timestamp(6) with time zone not null, "
+                        + "finished_at timestamp(6) with time zone, "
+                        + "error varchar(1000))")
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,38 @@
+package isel.leic.repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import isel.leic.model.BucketProvisioning;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@ApplicationScoped
+public class BucketProvisioningRepository implements PanacheRepositoryBase<BucketProvisioning, Long> {
+
+    public List<Long> findDueUserIds(Instant now, int limit) {
+        return find("status = ?1 and nextAttemptAt <= ?2", Sort.by("nextAttemptAt"), BucketProvisioning.Status.PENDING, now)
+                .page(0, limit)
+                .stream()
+                .map(BucketProvisioning::getUserId)
+                .toList();
+    }
+
+    @Transactional
+    public void createTable() {
+        getEntityManager()
+                .createNativeQuery("create table if not exists bucket_provisioning ("
+                        + "user_id bigint not null primary key, "
+                        + "bucket_name varchar(255) not null, "
+                        + "status varchar(255) not null, "
+                        + "attempts integer not null, "
+                        + "next_attempt_at timestamp(6) with time zone, "
+                        + "last_error varchar(255))")
+                .executeUpdate();
+        getEntityManager()
+                .createNativeQuery("create index if not exists idx_bucket_provisioning_due on bucket_provisioning (status, next_attempt_at)")
+                .executeUpdate();
+    }
+}
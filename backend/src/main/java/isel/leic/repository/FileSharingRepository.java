@@ -4,6 +4,7 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import isel.leic.model.FileSharing;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.NoResultException;
+import jakarta.transaction.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +26,43 @@ public class FileSharingRepository implements PanacheRepository<FileSharing> {
     }
 
 
+    public boolean existsByUsersAndFilenameIn(Long sharedByUserId, Long sharedToUserId, List<String> filenames) {
+        return find("sharedByUserId = ?1 and sharedToUserId = ?2 and filename in ?3", sharedByUserId, sharedToUserId, filenames)
+                .firstResultOptional()
+                .isPresent();
+    }
+
+    /**
+     * Serialises shares of the same filename until the transaction ends, so the check for an existing share and the
+     * insert that follows it cannot interleave with another share of that file. Unrelated names may share a lock.
+     */
+    public void lockFilename(String filename) {
+        getEntityManager()
+                .createNativeQuery("select 1 from pg_advisory_xact_lock(hashtext('file_sharing'), hashtext(:filename))")
+                .setParameter("filename", filename)
+                .getSingleResult();
+    }
+
+    /**
+     * Shares the file with every group member except the sharer and returns only the rows it inserted. Members that
+     * already share the file with the sharer, in either direction, are skipped, as in {@link #existsByUsersAndFilename}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<FileSharing> shareWithGroupMembers(Long sharedByUserId, Long groupId, String filename) {
+        return getEntityManager()
+                .createNativeQuery("insert into file_sharing (shared_by_user_id, shared_to_user_id, filename) " +
+                        "select :sharedBy, gm.user_id, :filename from group_member gm " +
+                        "where gm.group_id = :groupId and gm.user_id <> :sharedBy " +
+                        "and not exists (select 1 from file_sharing fs where fs.filename = :filename " +
+                        "and ((fs.shared_by_user_id = :sharedBy and fs.shared_to_user_id = gm.user_id) " +
+                        "or (fs.shared_by_user_id = gm.user_id and fs.shared_to_user_id = :sharedBy))) " +
+                        "returning id, shared_by_user_id, shared_to_user_id, filename", FileSharing.class)
+                .setParameter("sharedBy", sharedByUserId)
+                .setParameter("groupId", groupId)
+                .setParameter("filename", filename)
+                .getResultList();
+    }
+
     public Optional<List<FileSharing>> findBySharedByUserId(Long sharedByUserId) {
         List<FileSharing> fileSharings = list("sharedByUserId", sharedByUserId);
         return Optional.ofNullable(fileSharings.isEmpty() ? null : fileSharings);
@@ -44,4 +82,24 @@ public class FileSharingRepository implements PanacheRepository<FileSharing> {
                     .list();
         return Optional.ofNullable(fileSharings.isEmpty() ? null : fileSharings);
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public int renameSharedFilenames(Long sharedByUserId, String currentFilename, String newFilename, boolean isFolder) {
+        if (!isFolder) {
+            return update("filename = ?1 where sharedByUserId = ?2 and filename = ?3", newFilename, sharedByUserId, currentFilename);
+        }
+        return update("filename = concat(?1, substring(filename, ?2)) where sharedByUserId = ?3 and filename like ?4 escape '\\'",
+                newFilename, currentFilename.length() + 1, sharedByUserId, escapeLike(currentFilename) + "%");
+    }
+
+    @Transactional
+    public void createAuthorizationIndex() {
+        getEntityManager()
+                .createNativeQuery("create index if not exists idx_file_sharing_authorization on file_sharing (shared_by_user_id, shared_to_user_id, filename)")
+                .executeUpdate();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -5,8 +5,11 @@ import isel.leic.model.GroupMember;
 import jakarta.enterprise.context.ApplicationScoped;
 
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @ApplicationScoped
 public class GroupMemberRepository implements PanacheRepository<GroupMember> {
@@ -23,4 +26,30 @@ public class GroupMemberRepository implements PanacheRepository<GroupMember> {
     public void deleteByGroupIdAndUserId(Long groupId, Long userId) {
         delete("groupId = ?1 and userId = ?2", groupId, userId);
     }
+
+    public boolean existsByGroupIdAndUserId(Long groupId, Long userId) {
+        return !getEntityManager()
+                .createQuery("select 1 from GroupMember gm where gm.groupId = :groupId and gm.userId = :userId", Integer.class)
+                .setParameter("groupId", groupId)
+                .setParameter("userId", userId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    public boolean existsByGroupId(Long groupId) {
+        return find("groupId", groupId).firstResultOptional().isPresent();
+    }
+
+    public Set<Long> findMemberIds(Long groupId, Collection<Long> userIds) {
+        return new HashSet<>(getEntityManager()
+                .createQuery("select gm.userId from GroupMember gm where gm.groupId = :groupId and gm.userId in :userIds", Long.class)
+                .setParameter("groupId", groupId)
+                .setParameter("userIds", userIds)
+                .getResultList());
+    }
+
+    public long deleteByGroupIdAndUserIds(Long groupId, Collection<Long> userIds) {
+        return delete("groupId = ?1 and userId in ?2", groupId, userIds);
+    }
 }
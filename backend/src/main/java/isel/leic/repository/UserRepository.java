@@ -3,11 +3,19 @@ package isel.leic.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import isel.leic.model.User;
+import isel.leic.model.UserSummary;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class UserRepository implements PanacheRepository<User> {
@@ -20,9 +28,50 @@ public class UserRepository implements PanacheRepository<User> {
         return Optional.ofNullable(users.isEmpty() ? null : users);
     }
 
-    public Optional<List<User>> findByUsernamePrefix(String prefix) {
-        List<User> users = list("username like ?1", prefix + "%");
-        return users.isEmpty() ? Optional.empty() : Optional.of(users);
+    public Map<Long, String> findUsernamesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return getEntityManager()
+                .createQuery("select u.id, u.username from User u where u.id in :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (String) row[1]));
+    }
+
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return new HashSet<>(getEntityManager()
+                .createQuery("select u.id from User u where u.id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+
+    public List<UserSummary> findPage(Long afterId, int limit) {
+        return getEntityManager()
+                .createQuery("select new isel.leic.model.UserSummary(u.id, u.username) from User u where u.id > :afterId order by u.id", UserSummary.class)
+                .setParameter("afterId", afterId == null ? 0L : afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public List<UserSummary> findByUsernamePrefix(String prefix, int limit) {
+        return getEntityManager()
+                .createQuery("select new isel.leic.model.UserSummary(u.id, u.username) from User u where u.username like :pattern escape '\\' order by u.username", UserSummary.class)
+                .setParameter("pattern", escapeLike(prefix) + "%")
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Transactional
+    public void createUsernamePatternIndex() {
+        getEntityManager()
+                .createNativeQuery("create index if not exists idx_users_username_pattern on users (username text_pattern_ops)")
+                .executeUpdate();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
 }
@@ -3,10 +3,13 @@ package isel.leic.resource;
 import io.quarkus.security.Authenticated;
 import io.smallrye.common.constraint.NotNull;
 import jakarta.json.Json;
+import io.vertx.core.http.HttpServerRequest;
+import isel.leic.exception.UserNotFoundException;
 import isel.leic.model.User;
-import isel.leic.service.MinioService;
+import isel.leic.service.BucketProvisioningService;
+import isel.leic.service.LoginRateLimiter;
+import isel.leic.service.TokenService;
 import isel.leic.service.UserService;
-import isel.leic.utils.TokenUtils;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -17,6 +20,11 @@ import jakarta.ws.rs.core.SecurityContext;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
 
@@ -30,25 +38,33 @@ public class AuthenticationResource {
     @Inject
     UserService userService;
     @Inject
-    MinioService minioService;
-    @ConfigProperty(name = "com.cloudshare.quarkusjwt.jwt.duration")
-    Long tokenDuration;
-    @ConfigProperty(name = "mp.jwt.verify.issuer")
-    String tokenIssuer;
-    @ConfigProperty(name = "user.bucket.suffix")
-    String bucket_suffix;
+    BucketProvisioningService bucketProvisioningService;
+    @Inject
+    TokenService tokenService;
+    @Inject
+    LoginRateLimiter loginRateLimiter;
+    @ConfigProperty(name = "minio.provisioning.signup-wait", defaultValue = "PT0S")
+    Duration signupWait;
 
 
 
     @POST
     @PermitAll
     @Path("/login")
-    public Response login(@NotNull LoginRequest loginRequest) throws Exception {
+    public Response login(@NotNull LoginRequest loginRequest, @Context HttpServerRequest request) throws Exception {
         LOGGER.info("Received login request for user: {}", loginRequest.username);
-        User user = userService.authenticate(loginRequest.username, loginRequest.password);
+        loginRateLimiter.checkLogin(loginRequest.username, request.remoteAddress() == null ? null : request.remoteAddress().host());
+        User user;
+        try {
+            user = userService.authenticate(loginRequest.username, loginRequest.password);
+        } catch (IllegalArgumentException | UserNotFoundException e) {
+            loginRateLimiter.recordFailure(loginRequest.username);
+            throw e;
+        }
+        loginRateLimiter.recordSuccess(loginRequest.username);
 
         LOGGER.info("HTTP 200 OK: User authenticated successfully: {}", user.getUsername());
-        String token = TokenUtils.generateToken(user.getId(), tokenIssuer, tokenDuration);
+        String token = tokenService.generateToken(user.getId());
         LOGGER.info("Generated token for user: {}", user.getUsername());
 
 
@@ -69,9 +85,18 @@ public class AuthenticationResource {
                     .build();
         }
         User newUser = new User(signupRequest.username, signupRequest.password);
-        userService.createUser(newUser);
-        String createBucket = minioService.createBucket(newUser.getId() + bucket_suffix);
-        String token = TokenUtils.generateToken(newUser.getId(), tokenIssuer, tokenDuration);
+        userService.createUserWithBucket(newUser);
+        CompletableFuture<Boolean> provisioning = bucketProvisioningService.provisionAsync(newUser.getId());
+        if (!signupWait.isZero()) {
+            try {
+                provisioning.get(signupWait.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                LOGGER.warn("Bucket for user {} still provisioning, continuing signup", newUser.getUsername());
+            } catch (ExecutionException e) {
+                LOGGER.error("Error provisioning bucket for user {}, continuing signup: {}", newUser.getUsername(), e.getMessage(), e);
+            }
+        }
+        String token = tokenService.generateToken(newUser.getId());
         LOGGER.info("HTTP 200 OK: User signed up successfully: {}", newUser.getUsername());
         return Response.ok(userAndTokenJson(newUser, token)).build();
     }
@@ -82,7 +107,7 @@ public class AuthenticationResource {
     public Response refreshToken(@Context SecurityContext securityContext) throws Exception {
         String userId = securityContext.getUserPrincipal().getName();
         LOGGER.info("Received refresh token request for user: {}", userId);
-        String newToken = TokenUtils.generateToken(Long.valueOf(userId), tokenIssuer, tokenDuration);
+        String newToken = tokenService.generateToken(Long.valueOf(userId));
         LOGGER.info("HTTP 200 OK: Token refreshed successfully for user: {}", userId);
         return Response.ok(Json.createObjectBuilder().add("token", newToken).build()).build();
     }
@@ -1,6 +1,7 @@
 package isel.leic.resource;
 
 import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.common.constraint.NotNull;
 import isel.leic.model.FileSharing;
 import isel.leic.model.FileSharingResponse;
@@ -27,6 +28,7 @@ public class FileSharingResource {
     FileSharingService fileSharingService;
 
     @GET
+    @RunOnVirtualThread
     @Authenticated
     public Response getFilesSharedByUser(
             @PathParam("id") @NotNull Long userId,
@@ -43,6 +45,7 @@ public class FileSharingResource {
     }
 
     @GET
+    @RunOnVirtualThread
     @Authenticated
     @Path("/received")
     public Response getFilesSharedToUser(
@@ -58,6 +61,7 @@ public class FileSharingResource {
     }
 
     @POST
+    @RunOnVirtualThread
     @Authenticated
     public Response shareFiles(
             @PathParam("id") @NotNull Long userId,
@@ -83,6 +87,7 @@ public class FileSharingResource {
     }
 
     @DELETE
+    @RunOnVirtualThread
     @Authenticated
     public Response deleteFileShare(
             @PathParam("id") @NotNull Long userId,
@@ -1,8 +1,10 @@
 package isel.leic.resource;
 
 import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.common.constraint.NotNull;
 import isel.leic.model.Group;
+import isel.leic.model.GroupMembershipChange;
 import isel.leic.model.User;
 import isel.leic.service.GroupService;
 import isel.leic.utils.AuthorizationUtils;
@@ -27,6 +29,7 @@ public class GroupResource {
     GroupService groupService;
 
     @GET
+    @RunOnVirtualThread
     @Authenticated
     public Response getGroups(
             @PathParam("id") @NotNull Long id,
@@ -39,6 +42,7 @@ public class GroupResource {
     }
 
     @POST
+    @RunOnVirtualThread
     @Authenticated
     public Response createGroup(
             @PathParam("id") @NotNull Long id,
@@ -52,6 +56,7 @@ public class GroupResource {
     }
 
     @PUT
+    @RunOnVirtualThread
     @Authenticated
     @Path("/{groupId}/name")
     public Response updateGroupName(
@@ -68,6 +73,7 @@ public class GroupResource {
     }
 
     @DELETE
+    @RunOnVirtualThread
     @Authenticated
     @Path("/{groupId}")
     public Response deleteGroup(
@@ -82,6 +88,7 @@ public class GroupResource {
     }
 
     @POST
+    @RunOnVirtualThread
     @Authenticated
     @Path("/{groupId}")
     public Response addUserToGroup(
@@ -98,6 +105,7 @@ public class GroupResource {
     }
 
     @GET
+    @RunOnVirtualThread
     @Authenticated
     @Path("/{groupId}/member")
     public Response getGroupMembers(
@@ -112,7 +120,42 @@ public class GroupResource {
         return Response.ok(users).build();
     }
 
+    @POST
+    @RunOnVirtualThread
+    @Authenticated
+    @Path("/{groupId}/member")
+    public Response addMembersToGroup(
+            @PathParam("id") @NotNull Long id,
+            @PathParam("groupId") @NotNull Long groupId,
+            @Context SecurityContext securityContext,
+            @NotNull bulkMembers members
+    ) {
+        LOGGER.info("Received a request to add {} users to group with ID: {}", members.userIds == null ? 0 : members.userIds.size(), groupId);
+        AuthorizationUtils.checkAuthorization(id, securityContext.getUserPrincipal().getName());
+        GroupMembershipChange change = groupService.addUsersToGroup(members.userIds, groupId);
+        LOGGER.info("HTTP 200 OK: Added {} users to group with ID: {}", change.applied().size(), groupId);
+        return Response.ok(change).build();
+    }
+
+    @DELETE
+    @RunOnVirtualThread
+    @Authenticated
+    @Path("/{groupId}/member")
+    public Response removeMembersFromGroup(
+            @PathParam("id") @NotNull Long id,
+            @PathParam("groupId") @NotNull Long groupId,
+            @QueryParam("userId") List<Long> userIds,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received a request to remove {} users from group with ID: {}", userIds.size(), groupId);
+        AuthorizationUtils.checkAuthorization(id, securityContext.getUserPrincipal().getName());
+        GroupMembershipChange change = groupService.removeUsersFromGroup(userIds, groupId);
+        LOGGER.info("HTTP 200 OK: Removed {} users from group with ID: {}", change.applied().size(), groupId);
+        return Response.ok(change).build();
+    }
+
     @DELETE
+    @RunOnVirtualThread
     @Authenticated
     @Path("/{groupId}/member/{memberId}")
     public Response removeMemberFromGroup(
@@ -128,4 +171,5 @@ public class GroupResource {
     }
     private record createGroup(String name){};
     private record addUser(Long userId){};
+    private record bulkMembers(List<Long> userIds){};
 }
@@ -1,10 +1,20 @@
 package isel.leic.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.common.constraint.NotNull;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import isel.leic.model.storage.ByteRange;
 import isel.leic.model.storage.FileObject;
 import isel.leic.model.storage.FormData;
 import isel.leic.model.storage.MultipartChunkForm;
+import isel.leic.model.storage.ObjectDownload;
+import isel.leic.model.storage.ObjectPage;
 import isel.leic.service.FileSharingService;
 import isel.leic.service.MinioService;
 import isel.leic.utils.AuthorizationUtils;
@@ -12,11 +22,23 @@ import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestMulti;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Path("/user/{id}/object")
 public class MinioResource {
@@ -25,12 +47,18 @@ public class MinioResource {
     MinioService minioService;
     @Inject
     FileSharingService fileSharingService;
+    @Inject
+    ObjectMapper objectMapper;
     @ConfigProperty(name = "user.bucket.suffix")
     String bucket_suffix;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MinioResource.class);
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
 
     @GET
+    @RunOnVirtualThread
     @Authenticated
     @Produces(MediaType.APPLICATION_JSON)
     public List<FileObject> listFiles(
@@ -45,7 +73,61 @@ public class MinioResource {
         return minioService.listObjects(bucketName, suffix,delimiter);
     }
 
+    @GET
+    @RunOnVirtualThread
+    @Authenticated
+    @Path("/page")
+    @Produces(MediaType.APPLICATION_JSON)
+    public ObjectPage listFilesPage(
+            @PathParam("id") @NotNull Long id,
+            @QueryParam("suffix") String suffix,
+            @QueryParam("delimiter") String delimiter,
+            @QueryParam("limit") @DefaultValue("1000") int limit,
+            @QueryParam("cursor") String cursor,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received request to list a page of files for user with ID: {}", id);
+        authorize(id, securityContext);
+        String bucketName = id + bucket_suffix;
+        return minioService.listObjectsPage(bucketName, suffix, delimiter, limit, cursor);
+    }
+
+    @GET
+    @RunOnVirtualThread
+    @Authenticated
+    @Path("/listing")
+    @Produces(NDJSON)
+    public Response listFilesAsStream(
+            @PathParam("id") @NotNull Long id,
+            @QueryParam("suffix") String suffix,
+            @QueryParam("delimiter") String delimiter,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received request to stream file listing for user with ID: {}", id);
+        authorize(id, securityContext);
+        String bucketName = id + bucket_suffix;
+        StreamingOutput listing = output -> {
+            try {
+                minioService.forEachObjectPage(bucketName, suffix, delimiter, page -> {
+                    try {
+                        for (FileObject fileObject : page) {
+                            output.write(objectMapper.writeValueAsBytes(fileObject));
+                            output.write('\n');
+                        }
+                        output.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return Response.ok(listing, NDJSON).build();
+    }
+
     @DELETE
+    @RunOnVirtualThread
     @Authenticated
     public Response deleteFile(
             @PathParam("id") @NotNull Long userId,
@@ -72,6 +154,7 @@ public class MinioResource {
     }
 
     @PUT
+    @RunOnVirtualThread
     @Authenticated
     public Response renameFile(
             @PathParam("id") @NotNull Long userId,
@@ -87,6 +170,9 @@ public class MinioResource {
             LOGGER.info("File '{}' renamed successfully for user with ID: {}", objectKey, userId);
             return Response.ok().build();
 
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid rename request for user with ID: {}: {}", userId, e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (Exception e) {
             LOGGER.error("Error occurred while processing rename file request for user with ID: {}", userId, e);
             return Response.serverError().entity("Error occurred while processing rename file request").build();
@@ -96,6 +182,7 @@ public class MinioResource {
 
 
     @POST
+    @RunOnVirtualThread
     @Authenticated
     @Path("/presign/upload")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -130,6 +217,7 @@ public class MinioResource {
 
 
     @POST
+    @RunOnVirtualThread
     @Path("/presign/download")
     @Authenticated
     @Consumes(MediaType.APPLICATION_JSON)
@@ -141,19 +229,18 @@ public class MinioResource {
     ) {
         LOGGER.info("Received request to download file '{}' for user with ID: {}", downloadRequest.objectKey(), id);
         try {
-            authorize(id, securityContext);
-
-            String userId = getUserId(securityContext);
-            String bucketName = id + bucket_suffix;
-
-            if (fileSharingService.isFileSharedWithUser(id, Long.valueOf(userId), downloadRequest.objectKey())) {
-                String errorMessage = String.format("User '%s' is not authorized to access this resource", id);
-                LOGGER.error(errorMessage);
-                return Response.status(Response.Status.FORBIDDEN).entity(errorMessage).build();
-            } else {
+            try {
+                authorize(id, securityContext);
+            } catch (ForbiddenException e) {
+                String userId = getUserId(securityContext);
+                if (!fileSharingService.isFileSharedWithUser(id, Long.valueOf(userId), downloadRequest.objectKey())) {
+                    throw e;
+                }
                 LOGGER.info("User '{}' is accessing file '{}' shared by user '{}'", userId, downloadRequest.objectKey(), id);
             }
 
+            String bucketName = id + bucket_suffix;
+
             URL presignedUrl = minioService.generatePresignedDownloadUrl(bucketName, downloadRequest.objectKey());
             return Response.ok(new PresignResponse(presignedUrl.toString())).build();
         } catch (ForbiddenException e) {
@@ -167,6 +254,7 @@ public class MinioResource {
     }
 
     @POST
+    @RunOnVirtualThread
     @Authenticated
     @Path("/folder")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -197,32 +285,60 @@ public class MinioResource {
     @POST
     @Authenticated
     @Consumes(MediaType.MULTIPART_FORM_DATA)
-    public Response uploadFile(
+    public Uni<Response> uploadFile(
             @NotNull FormData formData,
             @PathParam("id") @NotNull Long id,
             @Context SecurityContext securityContext
     ) {
         LOGGER.info("Received request to upload file for user with ID: {}", id);
-        try {
-            authorize(id, securityContext);
-            String userId = getUserId(securityContext);
-            String bucketName = userId + bucket_suffix;
-            String response = minioService.uploadObject(bucketName, formData);
-            if (response.startsWith("Object uploaded successfully")) {
-                LOGGER.info("File uploaded successfully for user with ID: {}", id);
-                return Response.ok().status(Response.Status.CREATED).build();
-            } else {
-                LOGGER.error("Error uploading file for user with ID: {}. Error: {}", id, response);
-                return Response.serverError().entity(response).build();
-            }
-        } catch (Exception e) {
-            LOGGER.error("Error occurred while uploading file for user with ID: {}", id, e);
-            return Response.serverError().entity("Error occurred while uploading file").build();
-        }
+        return Uni.createFrom().item(() -> {
+                    authorize(id, securityContext);
+                    return getUserId(securityContext) + bucket_suffix;
+                })
+                .onItem().transformToUni(bucketName -> minioService.uploadObjectAsync(bucketName, formData))
+                .map(response -> {
+                    if (response.startsWith("Object uploaded successfully")) {
+                        LOGGER.info("File uploaded successfully for user with ID: {}", id);
+                        return Response.ok().status(Response.Status.CREATED).build();
+                    }
+                    LOGGER.error("Error uploading file for user with ID: {}. Error: {}", id, response);
+                    return Response.serverError().entity(response).build();
+                })
+                .onFailure().recoverWithItem(e -> {
+                    LOGGER.error("Error occurred while uploading file for user with ID: {}", id, e);
+                    return Response.serverError().entity("Error occurred while uploading file").build();
+                });
+    }
+
+    @POST
+    @Authenticated
+    @Path("/stream")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    public Uni<Response> uploadFileAsStream(
+            @PathParam("id") @NotNull Long id,
+            @QueryParam("filename") @NotNull String filename,
+            @QueryParam("mimetype") String mimetype,
+            @Context HttpServerRequest request,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received request to stream file '{}' for user with ID: {}", filename, id);
+        authorize(id, securityContext);
+        String bucketName = getUserId(securityContext) + bucket_suffix;
+        String contentType = mimetype != null ? mimetype : MediaType.APPLICATION_OCTET_STREAM;
+        return minioService.uploadObject(bucketName, filename, contentType, request)
+                .map(response -> {
+                    LOGGER.info("File '{}' streamed successfully for user with ID: {}", filename, id);
+                    return Response.ok().status(Response.Status.CREATED).build();
+                })
+                .onFailure().recoverWithItem(e -> {
+                    LOGGER.error("Error occurred while streaming file '{}' for user with ID: {}", filename, id, e);
+                    return Response.serverError().entity("Error occurred while uploading file").build();
+                });
     }
 
 
 @GET
+@RunOnVirtualThread
 @Authenticated
 @Path("/download")
 @Produces(MediaType.APPLICATION_OCTET_STREAM)
@@ -237,27 +353,22 @@ public Response downloadFile(
         authorize(id, securityContext);
     } catch (ForbiddenException e) {
         String userId = getUserId(securityContext);
-        if (fileSharingService.isFileSharedWithUser(id, Long.valueOf(userId), objectKey)) {
+        if (!fileSharingService.isFileSharedWithUser(id, Long.valueOf(userId), objectKey)) {
             String errorMessage = String.format("User '%s' is not authorized to access this resource", id);
             LOGGER.error(errorMessage);
             return Response.status(Response.Status.FORBIDDEN).entity(errorMessage).build();
-        } else {
-            LOGGER.info("User '{}' is accessing file '{}' shared by user '{}'", userId, objectKey, id);
         }
+        LOGGER.info("User '{}' is accessing file '{}' shared by user '{}'", userId, objectKey, id);
     }
 
     String bucketName = id + bucket_suffix;
     try {
-        byte[] objectBytes = minioService.downloadObject(bucketName, objectKey);
-        if (objectBytes != null && objectBytes.length > 0) {
-            LOGGER.info("File '{}' downloaded successfully for user with ID: {}", objectKey, id);
-            return Response.ok(objectBytes)
-                    .header("Content-Length", String.valueOf(objectBytes.length))
-                    .build();
-        } else {
-            LOGGER.error("File '{}' not found for user with ID: {}", objectKey, id);
-            return Response.status(Response.Status.NOT_FOUND).entity("File not found").build();
-        }
+        ObjectDownload download = minioService.downloadObject(bucketName, objectKey);
+        LOGGER.info("Streaming file '{}' for user with ID: {}", objectKey, id);
+        return downloadResponse(download).build();
+    } catch (NoSuchKeyException e) {
+        LOGGER.error("File '{}' not found for user with ID: {}", objectKey, id);
+        return Response.status(Response.Status.NOT_FOUND).entity("File not found").build();
     } catch (Exception e) {
         LOGGER.error("Error occurred while downloading file '{}' for user with ID: {}", objectKey, id, e);
         return Response.serverError().entity("Error occurred while downloading file").build();
@@ -265,12 +376,16 @@ public Response downloadFile(
 }
 
     @GET
+    @RunOnVirtualThread
     @Authenticated
     @Path("/download/stream")
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     public Response downloadFileAsStream(
             @PathParam("id") @NotNull Long id,
             @QueryParam("objectKey") @NotNull String objectKey,
+            @HeaderParam("Range") String range,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam("If-Range") String ifRange,
             @Context SecurityContext securityContext
     ) {
         LOGGER.info("Received request to download file '{}' for user with ID: {}", objectKey, id);
@@ -279,27 +394,24 @@ public Response downloadFile(
             authorize(id, securityContext);
         } catch (ForbiddenException e) {
             String userId = getUserId(securityContext);
-            if (fileSharingService.isFileSharedWithUser(id, Long.valueOf(userId), objectKey)) {
+            if (!fileSharingService.isFileSharedWithUser(id, Long.valueOf(userId), objectKey)) {
                 String errorMessage = String.format("User '%s' is not authorized to access this resource", id);
                 LOGGER.error(errorMessage);
                 return Response.status(Response.Status.FORBIDDEN).entity(errorMessage).build();
-            } else {
-                LOGGER.info("User '{}' is accessing file '{}' shared by user '{}'", userId, objectKey, id);
             }
+            LOGGER.info("User '{}' is accessing file '{}' shared by user '{}'", userId, objectKey, id);
         }
 
         String bucketName = id + bucket_suffix;
         try {
-            StreamingOutput streamingOutput = minioService.downloadObjectAsStream(bucketName, objectKey);
-            if (streamingOutput != null) {
-                LOGGER.info("File '{}' downloaded successfully for user with ID: {}", objectKey, id);
-                return Response.ok(streamingOutput)
-                        .header("Content-Disposition", "attachment; filename=\"" + objectKey + "\"")
-                        .build();
-            } else {
-                LOGGER.error("File '{}' not found for user with ID: {}", objectKey, id);
-                return Response.status(Response.Status.NOT_FOUND).entity("File not found").build();
-            }
+            ObjectDownload download = minioService.downloadObject(bucketName, objectKey, ByteRange.parse(range), ifNoneMatch, ifRange);
+            LOGGER.info("Streaming file '{}' with status {} for user with ID: {}", objectKey, download.getStatus(), id);
+            return downloadResponse(download)
+                    .header("Content-Disposition", "attachment; filename=\"" + objectKey + "\"")
+                    .build();
+        } catch (NoSuchKeyException e) {
+            LOGGER.error("File '{}' not found for user with ID: {}", objectKey, id);
+            return Response.status(Response.Status.NOT_FOUND).entity("File not found").build();
         } catch (Exception e) {
             LOGGER.error("Error occurred while downloading file '{}' for user with ID: {}", objectKey, id, e);
             return Response.serverError().entity("Error occurred while downloading file").build();
@@ -307,6 +419,7 @@ public Response downloadFile(
     }
 
     @POST
+    @RunOnVirtualThread
     @Authenticated
     @Path("/multipart/start")
     @Produces(MediaType.APPLICATION_JSON)
@@ -330,6 +443,40 @@ public Response downloadFile(
     }
 
     @POST
+    @RunOnVirtualThread
+    @Authenticated
+    @Path("/multipart/presign")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response presignMultipartParts(
+            @PathParam("id") @NotNull Long id,
+            @NotNull PresignPartsRequest presignRequest,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received request to presign {} parts of upload {} for user with ID: {}", presignRequest.count(), presignRequest.uploadId(), id);
+        try {
+            authorize(id, securityContext);
+            String userId = getUserId(securityContext);
+            String bucketName = userId + bucket_suffix;
+
+            List<URL> urls = minioService.generatePresignedUploadPartUrls(bucketName, presignRequest.filename(), presignRequest.uploadId(),
+                    presignRequest.firstPartNumber(), presignRequest.count());
+            List<PresignedPartResponse> parts = new ArrayList<>(urls.size());
+            for (int i = 0; i < urls.size(); i++) {
+                parts.add(new PresignedPartResponse(presignRequest.firstPartNumber() + i, urls.get(i).toString()));
+            }
+            return Response.ok(parts).build();
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid presign parts request for user with ID: {}: {}", id, e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while presigning multipart upload parts for user with ID: {}", id, e);
+            return Response.serverError().entity("Error occurred while presigning multipart upload parts").build();
+        }
+    }
+
+    @POST
+    @RunOnVirtualThread
     @Authenticated
     @Path("/multipart/upload")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
@@ -355,6 +502,38 @@ public Response downloadFile(
     }
 
     @POST
+    @RunOnVirtualThread
+    @Authenticated
+    @Path("/multipart/upload/stream")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response uploadPartAsStream(
+            InputStream data,
+            @PathParam("id") @NotNull Long id,
+            @QueryParam("filename") @NotNull String filename,
+            @QueryParam("uploadId") @NotNull String uploadId,
+            @QueryParam("partNumber") @NotNull Integer partNumber,
+            @HeaderParam(HttpHeaders.CONTENT_LENGTH) @NotNull Long contentLength,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received request to stream part number {} for user with ID: {}", partNumber, id);
+        try {
+            authorize(id, securityContext);
+            String userId = getUserId(securityContext);
+            String bucketName = userId + bucket_suffix;
+
+            String eTag = minioService.uploadPart(bucketName, data, contentLength, filename, uploadId, partNumber);
+            LOGGER.info("Uploaded part number {} with ETag: {}", partNumber, eTag);
+
+            return Response.ok(new PartUploadResponse(partNumber, eTag)).build();
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while streaming part number {} for user with ID: {}", partNumber, id, e);
+            return Response.serverError().entity("Error occurred while uploading part").build();
+        }
+    }
+
+    @POST
+    @RunOnVirtualThread
     @Authenticated
     @Path("/multipart/complete")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -369,7 +548,13 @@ public Response downloadFile(
             String userId = getUserId(securityContext);
             String bucketName = userId + bucket_suffix;
 
-            minioService.completeMultipartUpload(bucketName, completeRequest.filename(), completeRequest.uploadId());
+            List<CompletedPart> parts = completeRequest.parts() == null ? null : completeRequest.parts().stream()
+                    .map(part -> CompletedPart.builder()
+                            .partNumber(part.partNumber())
+                            .eTag(part.eTag())
+                            .build())
+                    .toList();
+            minioService.completeMultipartUpload(bucketName, completeRequest.filename(), completeRequest.uploadId(), parts, completeRequest.partCount());
             return Response.ok().build();
         } catch (Exception e) {
             LOGGER.error("Error occurred while completing multipart upload for user with ID: {}", id, e);
@@ -379,6 +564,7 @@ public Response downloadFile(
 
 
     @POST
+    @RunOnVirtualThread
     @Authenticated
     @Path("/multipart/abort")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -418,11 +604,123 @@ public Response downloadFile(
 
     public record PartUploadResponse(int partNumber, String eTag) {}
 
-    public record CompleteMultipartUploadRequest(String uploadId, String filename) {}
+    public record PresignPartsRequest(String uploadId, String filename, int firstPartNumber, int count) {}
+
+    public record PresignedPartResponse(int partNumber, String presignedUrl) {}
+
+    /**
+     * Either the full part list, or just the number of parts uploaded; with neither the parts are listed from MinIO.
+     */
+    public record CompleteMultipartUploadRequest(String uploadId, String filename, List<PartUploadResponse> parts, Integer partCount) {
+        public CompleteMultipartUploadRequest(String uploadId, String filename, List<PartUploadResponse> parts) {
+            this(uploadId, filename, parts, null);
+        }
+    }
 
 
     public record CancelMultipartUploadRequest(String uploadId, String filename) {}
 
+    /**
+     * Same contract as {@code /download/stream} for a single range, If-Range included, but the object is relayed without
+     * holding a worker thread; only the authorization check runs blocking.
+     */
+    @GET
+    @Authenticated
+    @Blocking
+    @Path("/download/async")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public RestMulti<Buffer> downloadFileAsync(
+            @PathParam("id") @NotNull Long id,
+            @QueryParam("objectKey") @NotNull String objectKey,
+            @HeaderParam("Range") String range,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam("If-Range") String ifRange,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received request to download file '{}' asynchronously for user with ID: {}", objectKey, id);
+
+        try {
+            authorize(id, securityContext);
+        } catch (ForbiddenException e) {
+            String userId = getUserId(securityContext);
+            if (!fileSharingService.isFileSharedWithUser(id, Long.valueOf(userId), objectKey)) {
+                String errorMessage = String.format("User '%s' is not authorized to access this resource", id);
+                LOGGER.error(errorMessage);
+                return errorMulti(Response.Status.FORBIDDEN, errorMessage);
+            }
+            LOGGER.info("User '{}' is accessing file '{}' shared by user '{}'", userId, objectKey, id);
+        }
+
+        List<ByteRange> ranges = ByteRange.parse(range);
+        if (ranges.size() > 1) {
+            return errorMulti(Response.Status.BAD_REQUEST, "Multiple ranges are only supported on /download/stream");
+        }
+        String bucketName = id + bucket_suffix;
+        Uni<ObjectDownload> download = minioService.downloadObjectAsync(bucketName, objectKey, ranges.isEmpty() ? null : ranges.get(0), ifNoneMatch, ifRange)
+                .onFailure(NoSuchKeyException.class).recoverWithItem(e -> {
+                    LOGGER.error("File '{}' not found for user with ID: {}", objectKey, id);
+                    return new ObjectDownload().setObjectKey(objectKey).setStatus(404)
+                            .setContent(Multi.createFrom().item(Buffer.buffer("File not found")));
+                });
+        return RestMulti.fromUniResponse(download,
+                d -> d.getContent() != null ? d.getContent() : Multi.createFrom().empty(),
+                this::downloadHeaders,
+                ObjectDownload::getStatus);
+    }
+
+    private Map<String, List<String>> downloadHeaders(ObjectDownload download) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(ACCEPT_RANGES, List.of("bytes"));
+        if (download.getETag() != null) {
+            headers.put(HttpHeaders.ETAG, List.of(download.getETag()));
+        }
+        if (download.getContentRange() != null) {
+            headers.put(CONTENT_RANGE, List.of(download.getContentRange()));
+        }
+        if (download.getStatus() == 200 || download.getStatus() == 206) {
+            if (download.getContentLength() != null) {
+                headers.put(HttpHeaders.CONTENT_LENGTH, List.of(String.valueOf(download.getContentLength())));
+            }
+            if (download.getLastModified() != null) {
+                headers.put(HttpHeaders.LAST_MODIFIED, List.of(DateTimeFormatter.RFC_1123_DATE_TIME.format(download.getLastModified().atOffset(ZoneOffset.UTC))));
+            }
+            headers.put("Content-Disposition", List.of("attachment; filename=\"" + download.getObjectKey() + "\""));
+        }
+        return headers;
+    }
+
+    private static RestMulti<Buffer> errorMulti(Response.Status status, String message) {
+        return RestMulti.fromUniResponse(Uni.createFrom().item(message),
+                body -> Multi.createFrom().item(Buffer.buffer(body)),
+                body -> Map.of(),
+                body -> status.getStatusCode());
+    }
+
+    private Response.ResponseBuilder downloadResponse(ObjectDownload download) {
+        Response.ResponseBuilder builder = Response.status(download.getStatus())
+                .header(ACCEPT_RANGES, "bytes");
+        if (download.getETag() != null) {
+            builder.header(HttpHeaders.ETAG, download.getETag());
+        }
+        if (download.getContentRange() != null) {
+            builder.header(CONTENT_RANGE, download.getContentRange());
+        }
+        if (download.getBody() == null) {
+            return builder;
+        }
+        builder.entity(download.getBody());
+        if (download.getContentLength() != null) {
+            builder.header(HttpHeaders.CONTENT_LENGTH, download.getContentLength());
+        }
+        if (download.getLastModified() != null) {
+            builder.lastModified(Date.from(download.getLastModified()));
+        }
+        if (download.isMultipart()) {
+            builder.type(download.getContentType());
+        }
+        return builder;
+    }
+
     private String getUserId(SecurityContext securityContext) {
         return securityContext.getUserPrincipal().getName();
    }
@@ -1,8 +1,11 @@
 package isel.leic.resource;
 
 import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.common.constraint.NotNull;
 import isel.leic.model.User;
+import isel.leic.model.UserSummary;
+import isel.leic.model.storage.BucketDeletionJob;
 import isel.leic.service.MinioService;
 import isel.leic.service.UserService;
 import isel.leic.utils.AuthorizationUtils;
@@ -12,14 +15,14 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 @Path("/user")
 @Produces(MediaType.APPLICATION_JSON)
@@ -37,14 +40,27 @@ public class UserResource {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserResource.class);
 
     @GET
+    @RunOnVirtualThread
     @Authenticated
-    public Response getUsers() {
-        LOGGER.info("Received get request for all users");
-        List<User> users = userService.findAll();
+    public Response getUsers(
+            @QueryParam("after") Long after,
+            @QueryParam("limit") Integer limit,
+            @Context UriInfo uriInfo
+    ) {
+        LOGGER.info("Received get request for users after id: {}", after);
+        List<UserSummary> users = userService.findPage(after, limit);
+        Response.ResponseBuilder response = Response.ok(users);
+        if (!users.isEmpty() && users.size() == userService.pageSize(limit)) {
+            URI next = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("after", users.get(users.size() - 1).id())
+                    .build();
+            response.link(next, "next");
+        }
         LOGGER.info("HTTP 200 OK: Fetched {} users", users.size());
-        return Response.ok(users).build();
+        return response.build();
     }
     @GET
+    @RunOnVirtualThread
     @Path("/{id}")
     @Authenticated
     public Response getUserById(@PathParam("id") @NotNull Long id) {
@@ -58,6 +74,7 @@ public class UserResource {
         return Response.ok(user).build();
     }
     @PUT
+    @RunOnVirtualThread
     @Authenticated
     @Path("/{id}")
     public Response updateUserPassword(
@@ -72,20 +89,18 @@ public class UserResource {
         return Response.ok().entity(updatedUser).build();
     }
     @GET
+    @RunOnVirtualThread
     @Path("/search")
     @Authenticated
     public Response searchUsers(@QueryParam("prefix") @NotNull String prefix) {
         LOGGER.info("Received search request for users with prefix: {}", prefix);
-        Optional<List<User>> optionalUsers = userService.findByUsernamePrefix(prefix);
-        List<User> users = Collections.emptyList();
-        if (optionalUsers.isPresent()) {
-            users = optionalUsers.get();
-        }
+        List<UserSummary> users = userService.findByUsernamePrefix(prefix);
         LOGGER.info("HTTP 200 OK: Found {} users with prefix: {}", users.size(), prefix);
         return Response.ok(users).build();
     }
 
     @DELETE
+    @RunOnVirtualThread
     @Authenticated
     @Path("/{id}")
     public Response deleteUser(
@@ -97,16 +112,28 @@ public class UserResource {
         userService.removeUser(id);
 
         String bucketName = id + bucket_suffix;
-        String deleteBucketResult = minioService.deleteBucket(bucketName);
-        if (deleteBucketResult.startsWith("Bucket deleted successfully")) {
-            LOGGER.info("HTTP 200 OK: User {} deleted successfully.", id);
-            return Response.ok().build();
-        } else {
-            LOGGER.error("Error deleting bucket for user {}: {}", id, deleteBucketResult);
-            return Response.serverError().entity(deleteBucketResult).build();
-        }
+        BucketDeletionJob deletionJob = minioService.scheduleBucketDeletion(bucketName);
+        LOGGER.info("HTTP 202 Accepted: User {} deleted successfully, bucket deletion is {}", id, deletionJob.getStatus());
+        return Response.accepted(deletionJob).build();
     }
 
+    @GET
+    @RunOnVirtualThread
+    @Authenticated
+    @Path("/{id}/deletion")
+    public Response getBucketDeletion(
+            @PathParam("id") @NotNull Long id,
+            @Context SecurityContext securityContext
+    ) {
+        LOGGER.info("Received bucket deletion status request for user: {}", id);
+        AuthorizationUtils.checkAuthorization(id, securityContext.getUserPrincipal().getName());
+        Optional<BucketDeletionJob> deletionJob = minioService.findBucketDeletion(id + bucket_suffix);
+        if (deletionJob.isEmpty()) {
+            LOGGER.error("No bucket deletion found for user {}", id);
+            return Response.status(Response.Status.NOT_FOUND).entity("Bucket deletion not found").build();
+        }
+        return Response.ok(deletionJob.get()).build();
+    }
 
 
 }
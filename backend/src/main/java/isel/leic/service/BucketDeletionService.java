@@ -0,0 +1,258 @@
+package isel.leic.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import isel.leic.model.BucketDeletion;
+import isel.leic.model.storage.BucketDeletionJob;
+import isel.leic.repository.BucketDeletionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@ApplicationScoped
+public class BucketDeletionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BucketDeletionService.class);
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    @Inject
+    S3Client minioClient;
+
+    @Inject
+    StorageMetrics storageMetrics;
+
+    @Inject
+    BucketDeletionRepository bucketDeletionRepository;
+
+    @ConfigProperty(name = "minio.bucket-deletion.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "minio.bucket-deletion.job-retention", defaultValue = "PT1H")
+    Duration jobRetention;
+
+    @ConfigProperty(name = "minio.bucket-deletion.create-table", defaultValue = "true")
+    boolean createTable;
+
+    private final Map<String, BucketDeletionJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService jobExecutor;
+    private ExecutorService batchExecutor;
+
+    @PostConstruct
+    void init() {
+        jobExecutor = Executors.newSingleThreadExecutor();
+        batchExecutor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (createTable) {
+            try {
+                bucketDeletionRepository.createTable();
+            } catch (Exception e) {
+                LOGGER.warn("Could not create bucket_deletion table: {}", e.getMessage());
+            }
+        }
+        try {
+            resumeUnfinished();
+        } catch (Exception e) {
+            LOGGER.error("Error resuming bucket deletions: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        batchExecutor.shutdownNow();
+    }
+
+    /**
+     * Records the deletion in the caller's transaction, so a user removal and its bucket teardown commit together.
+     */
+    @Transactional
+    public void enqueue(String bucketName) {
+        BucketDeletion deletion = bucketDeletionRepository.findById(bucketName);
+        if (deletion == null) {
+            bucketDeletionRepository.persist(new BucketDeletion(bucketName));
+        } else if (deletion.isFinished()) {
+            deletion.update(new BucketDeletionJob(bucketName));
+        }
+    }
+
+    /**
+     * Restarts deletions that were pending or half done when the previous instance stopped; deleting is idempotent,
+     * so a job picked up by more than one replica only repeats work.
+     */
+    public int resumeUnfinished() {
+        List<String> bucketNames = QuarkusTransaction.requiringNew().call(() -> bucketDeletionRepository.findUnfinishedBucketNames());
+        for (String bucketName : bucketNames) {
+            LOGGER.info("Resuming deletion of bucket: {}", bucketName);
+            submit(bucketName);
+        }
+        return bucketNames.size();
+    }
+
+    public BucketDeletionJob submit(String bucketName) {
+        evictFinishedJobs();
+        AtomicBoolean created = new AtomicBoolean(false);
+        BucketDeletionJob job = jobs.compute(bucketName, (name, existing) -> {
+            if (existing != null && !existing.isFinished()) {
+                return existing;
+            }
+            created.set(true);
+            return new BucketDeletionJob(name);
+        });
+        if (created.get()) {
+            LOGGER.info("Scheduling deletion of bucket: {}", bucketName);
+            jobExecutor.execute(() -> run(job));
+        }
+        return job;
+    }
+
+    public Optional<BucketDeletionJob> findJob(String bucketName) {
+        BucketDeletionJob job = jobs.get(bucketName);
+        if (job != null) {
+            return Optional.of(job);
+        }
+        return QuarkusTransaction.requiringNew().call(() -> bucketDeletionRepository.findByIdOptional(bucketName).map(BucketDeletion::toJob));
+    }
+
+    public String deleteBucket(String bucketName) {
+        BucketDeletionJob job = new BucketDeletionJob(bucketName);
+        job.start();
+        deleteAllObjects(job);
+        return deleteEmptyBucket(bucketName);
+    }
+
+    public void deleteKeys(String bucketName, List<String> keys) {
+        BucketDeletionJob job = new BucketDeletionJob(bucketName);
+        job.start();
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += DELETE_BATCH_SIZE) {
+            List<ObjectIdentifier> identifiers = keys.subList(from, Math.min(from + DELETE_BATCH_SIZE, keys.size())).stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            batches.add(CompletableFuture.runAsync(() -> deleteBatch(job, identifiers), batchExecutor));
+        }
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+        if (job.getFailedObjects() > 0) {
+            throw new IllegalStateException("Failed to delete " + job.getFailedObjects() + " objects from bucket: " + bucketName);
+        }
+        LOGGER.info("Deleted {} objects from bucket: {}", job.getDeletedObjects(), bucketName);
+    }
+
+    private void run(BucketDeletionJob job) {
+        job.start();
+        save(job);
+        try {
+            deleteAllObjects(job);
+            deleteEmptyBucket(job.getBucketName());
+            job.complete();
+        } catch (NoSuchBucketException e) {
+            LOGGER.info("Bucket {} is already gone", job.getBucketName());
+            job.complete();
+        } catch (Exception e) {
+            LOGGER.error("Error deleting bucket: {}", job.getBucketName(), e);
+            job.fail(e.getMessage());
+        }
+        save(job);
+    }
+
+    private void save(BucketDeletionJob job) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                BucketDeletion deletion = bucketDeletionRepository.findById(job.getBucketName());
+                if (deletion == null) {
+                    deletion = new BucketDeletion(job.getBucketName());
+                    bucketDeletionRepository.persist(deletion);
+                }
+                deletion.update(job);
+            });
+        } catch (Exception e) {
+            LOGGER.error("Error saving deletion state of bucket {}: {}", job.getBucketName(), e.getMessage());
+        }
+    }
+
+    private void deleteAllObjects(BucketDeletionJob job) {
+        String bucketName = job.getBucketName();
+        LOGGER.info("Deleting all objects from bucket: {}", bucketName);
+        Semaphore window = new Semaphore(parallelism);
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .maxKeys(DELETE_BATCH_SIZE)
+                    .continuationToken(continuationToken)
+                    .build();
+            ListObjectsV2Response page = storageMetrics.record("ListObjectsV2", bucketName, () -> minioClient.listObjectsV2(request));
+            continuationToken = Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+            List<ObjectIdentifier> identifiers = page.contents().stream()
+                    .map(s3Object -> ObjectIdentifier.builder().key(s3Object.key()).build())
+                    .toList();
+            if (identifiers.isEmpty()) {
+                continue;
+            }
+            window.acquireUninterruptibly();
+            batches.add(CompletableFuture
+                    .runAsync(() -> deleteBatch(job, identifiers), batchExecutor)
+                    .whenComplete((ignored, error) -> window.release()));
+        } while (continuationToken != null);
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+        if (job.getFailedObjects() > 0) {
+            throw new IllegalStateException("Failed to delete " + job.getFailedObjects() + " objects from bucket: " + bucketName);
+        }
+        LOGGER.info("Deleted {} objects from bucket: {}", job.getDeletedObjects(), bucketName);
+    }
+
+    private void deleteBatch(BucketDeletionJob job, List<ObjectIdentifier> identifiers) {
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(job.getBucketName())
+                .delete(Delete.builder()
+                        .objects(identifiers)
+                        .quiet(true)
+                        .build())
+                .build();
+        DeleteObjectsResponse response = storageMetrics.record("DeleteObjects", job.getBucketName(), () -> minioClient.deleteObjects(request));
+        for (S3Error error : response.errors()) {
+            LOGGER.error("Failed to delete object '{}' from bucket {}: {}", error.key(), job.getBucketName(), error.message());
+        }
+        job.addFailed(response.errors().size());
+        job.addDeleted(identifiers.size() - response.errors().size());
+    }
+
+    private String deleteEmptyBucket(String bucketName) {
+        DeleteBucketRequest request = DeleteBucketRequest.builder()
+                .bucket(bucketName)
+                .build();
+        storageMetrics.record("DeleteBucket", bucketName, () -> minioClient.deleteBucket(request));
+        LOGGER.info("Bucket deleted successfully: {}", bucketName);
+        return "Bucket deleted successfully: " + bucketName;
+    }
+
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+        try {
+            QuarkusTransaction.requiringNew().run(() -> bucketDeletionRepository.deleteFinishedBefore(cutoff));
+        } catch (Exception e) {
+            LOGGER.warn("Error removing finished bucket deletions: {}", e.getMessage());
+        }
+    }
+}
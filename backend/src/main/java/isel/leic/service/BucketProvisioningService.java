@@ -0,0 +1,131 @@
+package isel.leic.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import isel.leic.model.BucketProvisioning;
+import isel.leic.repository.BucketProvisioningRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.*;
+
+@ApplicationScoped
+public class BucketProvisioningService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BucketProvisioningService.class);
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    @Inject
+    BucketProvisioningRepository bucketProvisioningRepository;
+
+    @Inject
+    MinioService minioService;
+
+    @ConfigProperty(name = "user.bucket.suffix")
+    String bucketSuffix;
+
+    @ConfigProperty(name = "minio.provisioning.max-attempts", defaultValue = "10")
+    int maxAttempts;
+
+    @ConfigProperty(name = "minio.provisioning.retry-interval", defaultValue = "PT5S")
+    Duration retryInterval;
+
+    @ConfigProperty(name = "minio.provisioning.sweep-interval", defaultValue = "PT30S")
+    Duration sweepInterval;
+
+    @ConfigProperty(name = "minio.provisioning.create-table", defaultValue = "true")
+    boolean createTable;
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+
+    void onStart(@Observes StartupEvent event) {
+        if (createTable) {
+            try {
+                bucketProvisioningRepository.createTable();
+            } catch (Exception e) {
+                LOGGER.warn("Could not create bucket_provisioning table: {}", e.getMessage());
+            }
+        }
+        executor.scheduleWithFixedDelay(this::sweep, sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Transactional
+    public void enqueue(Long userId) {
+        LOGGER.info("Queueing bucket provisioning for user with ID: {}", userId);
+        bucketProvisioningRepository.persist(new BucketProvisioning(userId, userId + bucketSuffix));
+    }
+
+    public CompletableFuture<Boolean> provisionAsync(Long userId) {
+        return CompletableFuture.supplyAsync(() -> provision(userId), executor);
+    }
+
+    private boolean provision(Long userId) {
+        BucketProvisioning provisioning = QuarkusTransaction.requiringNew().call(() -> bucketProvisioningRepository.findById(userId));
+        if (provisioning == null || provisioning.getStatus() != BucketProvisioning.Status.PENDING) {
+            return provisioning != null && provisioning.getStatus() == BucketProvisioning.Status.DONE;
+        }
+        String bucketName = provisioning.getBucketName();
+        try {
+            minioService.createBucket(bucketName);
+            boolean userExists = QuarkusTransaction.requiringNew().call(() -> {
+                BucketProvisioning managed = bucketProvisioningRepository.findById(userId);
+                if (managed == null) {
+                    return false;
+                }
+                managed.setStatus(BucketProvisioning.Status.DONE);
+                managed.setLastError(null);
+                return true;
+            });
+            if (!userExists) {
+                // The user was removed while the bucket was being created, after its bucket deletion may already have run
+                LOGGER.warn("User with ID: {} was removed while provisioning, deleting bucket {}", userId, bucketName);
+                minioService.scheduleBucketDeletion(bucketName);
+            }
+            return userExists;
+        } catch (Exception e) {
+            LOGGER.error("Error provisioning bucket {} for user with ID: {}: {}", bucketName, userId, e.getMessage());
+            QuarkusTransaction.requiringNew().run(() -> {
+                BucketProvisioning managed = bucketProvisioningRepository.findById(userId);
+                if (managed == null) {
+                    return;
+                }
+                int attempts = managed.getAttempts() + 1;
+                managed.setAttempts(attempts);
+                managed.setLastError(e.getMessage());
+                managed.setNextAttemptAt(Instant.now().plus(retryInterval.multipliedBy(1L << Math.min(attempts - 1, 10))));
+                if (attempts >= maxAttempts) {
+                    LOGGER.error("Giving up provisioning bucket {} after {} attempts", bucketName, attempts);
+                    managed.setStatus(BucketProvisioning.Status.FAILED);
+                }
+            });
+            return false;
+        }
+    }
+
+    void sweep() {
+        try {
+            for (Long userId : QuarkusTransaction.requiringNew().call(() -> bucketProvisioningRepository.findDueUserIds(Instant.now(), SWEEP_BATCH_SIZE))) {
+                try {
+                    provision(userId);
+                } catch (Exception e) {
+                    LOGGER.error("Error provisioning bucket for user with ID: {}: {}", userId, e.getMessage(), e);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error sweeping bucket provisioning outbox: {}", e.getMessage(), e);
+        }
+    }
+}
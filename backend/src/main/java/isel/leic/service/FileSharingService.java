@@ -1,5 +1,6 @@
 package isel.leic.service;
 
+import io.quarkus.runtime.StartupEvent;
 import isel.leic.exception.*;
 import isel.leic.model.FileSharing;
 import isel.leic.model.FileSharingResponse;
@@ -7,37 +8,70 @@ import isel.leic.model.Group;
 import isel.leic.model.User;
 import isel.leic.model.storage.FileObject;
 import isel.leic.repository.FileSharingRepository;
+import isel.leic.repository.GroupMemberRepository;
 import isel.leic.repository.GroupRepository;
 import isel.leic.repository.UserRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class FileSharingService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FileSharingService.class);
+    private static final String ROOT_FOLDER = "";
 
     @Inject
     FileSharingRepository fileSharingRepository;
     @Inject
     UserRepository userRepository;
     @Inject
-    S3Client minioClient;
+    MinioService minioService;
 
     @Inject
     GroupRepository groupRepository;
+    @Inject
+    GroupMemberRepository groupMemberRepository;
+    @Inject
+    StorageMetrics storageMetrics;
+
+    @Inject
+    ManagedExecutor listingExecutor;
+
+    @ConfigProperty(name = "sharing.listing.parallelism", defaultValue = "8")
+    int listingParallelism;
+
+    @ConfigProperty(name = "sharing.create-authorization-index", defaultValue = "true")
+    boolean createAuthorizationIndex;
+
+    // Schema generation is off in production, so the @Index on FileSharing is only created here
+    void onStart(@Observes StartupEvent event) {
+        if (!createAuthorizationIndex) {
+            return;
+        }
+        try {
+            fileSharingRepository.createAuthorizationIndex();
+            LOGGER.info("File sharing authorization index is in place");
+        } catch (Exception e) {
+            LOGGER.warn("Could not create file sharing authorization index: {}", e.getMessage());
+        }
+    }
 
     @Transactional
     public FileSharing shareFileToUser(Long sharedByUsername, Long sharedToUsername, String filename) {
@@ -55,6 +89,7 @@ public class FileSharingService {
             throw new UserNotFoundException("User with ID: " + sharedToUsername + " not found");
         }
 
+        fileSharingRepository.lockFilename(filename);
         if (fileSharingRepository.existsByUsersAndFilename(sharedByUsername, sharedToUsername, filename)) {
             LOGGER.warn("File {} is already shared between users {} and {}", filename, sharedByUsername, sharedToUsername);
             throw new DuplicateResourceException("File '" + filename + "' is already shared between the users.");
@@ -76,21 +111,15 @@ public class FileSharingService {
             throw new GroupNotFoundException("Group with ID: " + sharedToGroupId + " not found");
         }
 
-        Optional<List<User>> groupUsersOptional = userRepository.findUsersByGroupId(sharedToGroupId);
-        if (groupUsersOptional.isEmpty()) {
+        fileSharingRepository.lockFilename(filename);
+        List<FileSharing> fileSharings = fileSharingRepository.shareWithGroupMembers(sharedByUserId, sharedToGroupId, filename);
+        if (fileSharings.isEmpty() && !groupMemberRepository.existsByGroupId(sharedToGroupId)) {
             LOGGER.error("Group with ID: {} has no members", sharedToGroupId);
             throw new MembersNotFoundException("Group with ID: " + sharedToGroupId + " has no members");
         }
 
-        List<User> usersInGroup = groupUsersOptional.get();
-        List<FileSharing> fileSharings = new ArrayList<>();
-        for (User user : usersInGroup) {
-            FileSharing fileSharing = new FileSharing(sharedByUserId, user.getId(), filename);
-            fileSharings.add(fileSharing);
-        }
-
-        fileSharingRepository.persist(fileSharings);
-        LOGGER.info("File '{}' shared successfully from user {} to group {}", filename, sharedByUserId, sharedToGroupId);
+        storageMetrics.recordFanOut("group_share", fileSharings.size());
+        LOGGER.info("File '{}' shared successfully from user {} to {} members of group {}", filename, sharedByUserId, fileSharings.size(), sharedToGroupId);
         return fileSharings;
     }
 
@@ -123,20 +152,14 @@ public class FileSharingService {
         List<FileSharing> sharedFiles = fileSharingRepository.findBySharedByUserId(userId)
                 .orElse(Collections.emptyList());
 
-        List<FileSharingResponse> responseList = new ArrayList<>();
+        Map<Long, String> usernames = userRepository.findUsernamesByIds(sharedFiles.stream()
+                .map(FileSharing::getSharedToUserId)
+                .collect(Collectors.toSet()));
         for (FileSharing fileSharing : sharedFiles) {
-            User sharedToUser = userRepository.findById(fileSharing.getSharedToUserId());
-            if (sharedToUser != null) {
-                fileSharing.setSharedToUsername(sharedToUser.getUsername());
-            }
-
-            List<FileObject> fileObjects = listObjectsFromBucket(fileSharing.getSharedByUserId(), fileSharing.getFilename());
-            for (FileObject fileObject : fileObjects) {
-                responseList.add(new FileSharingResponse(fileSharing, fileObject));
-            }
+            fileSharing.setSharedToUsername(usernames.get(fileSharing.getSharedToUserId()));
         }
 
-        return responseList;
+        return buildResponses(sharedFiles);
     }
 
     public List<FileSharingResponse> getFilesSharedToUser(Long sharedToUserId) {
@@ -151,55 +174,131 @@ public class FileSharingService {
         List<FileSharing> sharedFiles = fileSharingRepository.findBySharedToUserId(sharedToUserId)
                 .orElse(Collections.emptyList());
 
-        List<FileSharingResponse> responseList = new ArrayList<>();
+        Map<Long, String> usernames = userRepository.findUsernamesByIds(sharedFiles.stream()
+                .map(FileSharing::getSharedByUserId)
+                .collect(Collectors.toSet()));
         for (FileSharing fileSharing : sharedFiles) {
-            User sharedByUser = userRepository.findById(fileSharing.getSharedByUserId());
-            if (sharedByUser != null) {
-                fileSharing.setSharedByUsername(sharedByUser.getUsername());
-            }
+            fileSharing.setSharedByUsername(usernames.get(fileSharing.getSharedByUserId()));
+        }
+
+        return buildResponses(sharedFiles);
+    }
+
+    private List<FileSharingResponse> buildResponses(List<FileSharing> sharedFiles) {
+        Map<Long, List<FileObject>> objectsByOwner = listOwnerBuckets(sharedFiles);
 
-            List<FileObject> fileObjects = listObjectsFromBucket(fileSharing.getSharedByUserId(), fileSharing.getFilename());
-            for (FileObject fileObject : fileObjects) {
+        List<FileSharingResponse> responseList = new ArrayList<>();
+        for (FileSharing fileSharing : sharedFiles) {
+            List<FileObject> ownerObjects = objectsByOwner.getOrDefault(fileSharing.getSharedByUserId(), Collections.emptyList());
+            for (FileObject fileObject : objectsWithPrefix(ownerObjects, fileSharing.getFilename())) {
                 responseList.add(new FileSharingResponse(fileSharing, fileObject));
             }
         }
-
         return responseList;
     }
 
+    /**
+     * Lists each owner's shared files with one LIST per top-level folder instead of one per owner: the common prefix of
+     * unrelated names such as {@code a.txt} and {@code z/b.txt} is empty and would page through the whole bucket.
+     * Files at the root of the bucket share a single listing scoped by the {@code /} delimiter.
+     */
+    private Map<Long, List<FileObject>> listOwnerBuckets(List<FileSharing> sharedFiles) {
+        Map<Long, Map<String, List<String>>> filenamesByOwnerAndFolder = sharedFiles.stream()
+                .collect(Collectors.groupingBy(FileSharing::getSharedByUserId,
+                        Collectors.groupingBy(fileSharing -> topLevelFolder(fileSharing.getFilename()),
+                                Collectors.mapping(FileSharing::getFilename, Collectors.toList()))));
+        int listingCount = filenamesByOwnerAndFolder.values().stream().mapToInt(Map::size).sum();
+        storageMetrics.recordFanOut("listing", listingCount);
+
+        Semaphore window = new Semaphore(listingParallelism);
+        Map<Long, List<CompletableFuture<List<FileObject>>>> listings = new HashMap<>();
+        filenamesByOwnerAndFolder.forEach((ownerId, filenamesByFolder) -> filenamesByFolder.values().forEach(filenames -> {
+            window.acquireUninterruptibly();
+            listings.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(CompletableFuture
+                    .supplyAsync(() -> listSharedFiles(ownerId, filenames), listingExecutor)
+                    .whenComplete((ignored, error) -> window.release()));
+        }));
+
+        Map<Long, List<FileObject>> objectsByOwner = new HashMap<>();
+        listings.forEach((ownerId, ownerListings) -> {
+            // A root file "a" and a folder "a/" are listed separately but their listings overlap
+            Map<String, FileObject> objectsByKey = new TreeMap<>();
+            for (CompletableFuture<List<FileObject>> listing : ownerListings) {
+                join(listing).forEach(fileObject -> objectsByKey.putIfAbsent(fileObject.getObjectKey(), fileObject));
+            }
+            objectsByOwner.put(ownerId, new ArrayList<>(objectsByKey.values()));
+        });
+        return objectsByOwner;
+    }
 
-    private List<FileObject> listObjectsFromBucket(Long userId, String filename) {
-        String bucketName = userId + "-bucket";
+    private static String topLevelFolder(String filename) {
+        int slash = filename.indexOf('/');
+        return slash < 0 ? ROOT_FOLDER : filename.substring(0, slash + 1);
+    }
 
-        ListObjectsV2Request listObjectsReqManual = ListObjectsV2Request.builder()
-                .bucket(bucketName)
-                .prefix(filename)
-                .build();
+    // A lone root file is cheaper to list by its own name than by walking every root object
+    private List<FileObject> listSharedFiles(Long ownerId, List<String> filenames) {
+        if (filenames.size() > 1 && topLevelFolder(filenames.get(0)).equals(ROOT_FOLDER)) {
+            return listObjectsFromBucket(ownerId, ROOT_FOLDER, "/");
+        }
+        return listObjectsFromBucket(ownerId, commonPrefix(filenames), null);
+    }
 
-        ListObjectsV2Response listObjResponse = minioClient.listObjectsV2(listObjectsReqManual);
+    // Rethrows what the listing threw, so the storage exception mappers still see the S3 error
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-        return listObjResponse.contents().stream()
-                .map(FileObject::from)
-                .collect(Collectors.toList());
+    private List<FileObject> listObjectsFromBucket(Long userId, String filename, String delimiter) {
+        String bucketName = userId + "-bucket";
+        return minioService.listObjects(bucketName, filename, delimiter);
     }
 
+    private static List<FileObject> objectsWithPrefix(List<FileObject> sortedObjects, String prefix) {
+        int low = 0;
+        int high = sortedObjects.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedObjects.get(mid).getObjectKey().compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < sortedObjects.size() && sortedObjects.get(end).getObjectKey().startsWith(prefix)) {
+            end++;
+        }
+        return sortedObjects.subList(low, end);
+    }
 
-    public boolean isFileSharedWithUser(Long ownerId, Long userId, String filename) {
-        List<FileSharing> sharedFiles = fileSharingRepository.findBySharedByUserId(ownerId)
-                .orElse(Collections.emptyList());
-        for (FileSharing fileSharing : sharedFiles) {
-            String sharedFilename = fileSharing.getFilename();
-            Long sharedToUserId = fileSharing.getSharedToUserId();
-            if (sharedToUserId.equals(userId)) {
-                if (filename.equals(sharedFilename)) {
-                    return true;
-                }
-                if (sharedFilename.endsWith("/") && filename.startsWith(sharedFilename)) {
-                    return true;
-                }
+    private static String commonPrefix(List<String> filenames) {
+        String prefix = filenames.get(0);
+        for (String filename : filenames) {
+            int length = 0;
+            int max = Math.min(prefix.length(), filename.length());
+            while (length < max && prefix.charAt(length) == filename.charAt(length)) {
+                length++;
             }
+            prefix = prefix.substring(0, length);
         }
+        return prefix;
+    }
 
-        return false;
+
+    public boolean isFileSharedWithUser(Long ownerId, Long userId, String filename) {
+        List<String> coveringFilenames = new ArrayList<>();
+        coveringFilenames.add(filename);
+        for (int slash = filename.indexOf('/'); slash >= 0 && slash < filename.length() - 1; slash = filename.indexOf('/', slash + 1)) {
+            coveringFilenames.add(filename.substring(0, slash + 1));
+        }
+        return fileSharingRepository.existsByUsersAndFilenameIn(ownerId, userId, coveringFilenames);
     }
 }
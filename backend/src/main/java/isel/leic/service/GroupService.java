@@ -3,6 +3,7 @@ package isel.leic.service;
 import isel.leic.exception.*;
 import isel.leic.model.Group;
 import isel.leic.model.GroupMember;
+import isel.leic.model.GroupMembershipChange;
 import isel.leic.model.User;
 import isel.leic.repository.GroupMemberRepository;
 import isel.leic.repository.GroupRepository;
@@ -14,14 +15,17 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 @ApplicationScoped
 public class GroupService {
     private static final Logger LOGGER = LoggerFactory.getLogger(GroupService.class);
+    private static final int BULK_CHUNK_SIZE = 1000;
 
     @Inject
     GroupRepository groupRepository;
@@ -119,17 +123,79 @@ public class GroupService {
 
 
 
-    private boolean groupContainsUser(Group group, Long userId) {
-        Optional<List<User>> userListOptional = userRepository.findUsersByGroupId(group.getId());
-        if (userListOptional.isPresent()) {
-            List<User> userList = userListOptional.get();
-            for (User member : userList) {
-                if (member.getId().equals(userId)) {
-                    return true;
+    @Transactional
+    public GroupMembershipChange addUsersToGroup(List<Long> userIds, Long groupId) {
+        Group group = findGroupForBulkChange(userIds, groupId);
+        LOGGER.info("Adding {} users to group with ID '{}'", userIds.size(), groupId);
+
+        List<Long> applied = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            Set<Long> existingUsers = userRepository.findExistingIds(chunk);
+            Set<Long> currentMembers = groupMemberRepository.findMemberIds(groupId, chunk);
+            List<GroupMember> newMembers = new ArrayList<>(chunk.size());
+            for (Long userId : chunk) {
+                if (existingUsers.contains(userId) && !currentMembers.contains(userId) && !group.getCreatorId().equals(userId)) {
+                    newMembers.add(new GroupMember(userId, groupId));
+                    applied.add(userId);
+                } else {
+                    skipped.add(userId);
                 }
             }
+            groupMemberRepository.persist(newMembers);
+            groupMemberRepository.flush();
+            groupMemberRepository.getEntityManager().clear();
+        }
+
+        LOGGER.info("Added {} users to group with ID '{}', skipped {}", applied.size(), groupId, skipped.size());
+        return new GroupMembershipChange(applied, skipped);
+    }
+
+    @Transactional
+    public GroupMembershipChange removeUsersFromGroup(List<Long> userIds, Long groupId) {
+        findGroupForBulkChange(userIds, groupId);
+        LOGGER.info("Removing {} users from group with ID '{}'", userIds.size(), groupId);
+
+        List<Long> applied = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            Set<Long> currentMembers = groupMemberRepository.findMemberIds(groupId, chunk);
+            if (!currentMembers.isEmpty()) {
+                groupMemberRepository.deleteByGroupIdAndUserIds(groupId, currentMembers);
+            }
+            for (Long userId : chunk) {
+                (currentMembers.contains(userId) ? applied : skipped).add(userId);
+            }
+        }
+
+        LOGGER.info("Removed {} users from group with ID '{}', skipped {}", applied.size(), groupId, skipped.size());
+        return new GroupMembershipChange(applied, skipped);
+    }
+
+    private Group findGroupForBulkChange(List<Long> userIds, Long groupId) {
+        if (userIds == null || userIds.isEmpty() || userIds.contains(null)) {
+            LOGGER.error("Invalid user ID list: {}", userIds);
+            throw new IllegalArgumentException("User IDs must be a non-empty list without nulls");
         }
-        return false;
+        Group group = groupRepository.findById(groupId);
+        if (group == null) {
+            LOGGER.error("Group with ID '{}' not found", groupId);
+            throw new GroupNotFoundException("Group with ID '" + groupId + "' not found");
+        }
+        return group;
+    }
+
+    private static List<List<Long>> chunks(List<Long> userIds) {
+        List<Long> distinct = userIds.stream().distinct().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + BULK_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    private boolean groupContainsUser(Group group, Long userId) {
+        return groupMemberRepository.existsByGroupIdAndUserId(group.getId(), userId);
     }
 
     public List<User> getGroupMembers(Long groupId) {
@@ -0,0 +1,162 @@
+package isel.leic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import isel.leic.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ApplicationScoped
+public class LoginRateLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "security.login.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "security.login.username.capacity", defaultValue = "10")
+    int usernameCapacity;
+
+    @ConfigProperty(name = "security.login.username.refill-period", defaultValue = "PT6S")
+    Duration usernameRefillPeriod;
+
+    @ConfigProperty(name = "security.login.ip.capacity", defaultValue = "50")
+    int ipCapacity;
+
+    @ConfigProperty(name = "security.login.ip.refill-period", defaultValue = "PT1S")
+    Duration ipRefillPeriod;
+
+    @ConfigProperty(name = "security.login.failure-threshold", defaultValue = "5")
+    int failureThreshold;
+
+    @ConfigProperty(name = "security.login.base-backoff", defaultValue = "PT1S")
+    Duration baseBackoff;
+
+    @ConfigProperty(name = "security.login.max-backoff", defaultValue = "PT15M")
+    Duration maxBackoff;
+
+    // Token buckets kept as the time at which the bucket is full again (GCRA), so taking a token is one CAS
+    private final Map<String, AtomicLong> usernameBuckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, FailureState> failures = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor();
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        rejected = Counter.builder("auth.login.rejected").register(meterRegistry);
+        cleaner.scheduleWithFixedDelay(this::evictIdle, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    public void checkLogin(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        String usernameKey = normalize(username);
+        FailureState failureState = failures.get(usernameKey);
+        if (failureState != null) {
+            long blockedFor = failureState.blockedUntil.get() - now;
+            if (blockedFor > 0) {
+                reject(username, clientIp, "too many failed attempts", blockedFor);
+            }
+        }
+        if (clientIp != null) {
+            long wait = tryAcquire(ipBuckets, clientIp, ipCapacity, ipRefillPeriod, now);
+            if (wait > 0) {
+                reject(username, clientIp, "client rate limit exceeded", wait);
+            }
+        }
+        long wait = tryAcquire(usernameBuckets, usernameKey, usernameCapacity, usernameRefillPeriod, now);
+        if (wait > 0) {
+            reject(username, clientIp, "username rate limit exceeded", wait);
+        }
+    }
+
+    public void recordFailure(String username) {
+        if (!enabled) {
+            return;
+        }
+        FailureState state = failures.computeIfAbsent(normalize(username), key -> new FailureState());
+        int count = state.count.incrementAndGet();
+        state.lastFailure = System.nanoTime();
+        if (count >= failureThreshold) {
+            int exponent = Math.min(count - failureThreshold, 20);
+            long backoff = Math.min(baseBackoff.toNanos() << exponent, maxBackoff.toNanos());
+            state.blockedUntil.set(System.nanoTime() + backoff);
+        }
+    }
+
+    public void recordSuccess(String username) {
+        if (enabled) {
+            failures.remove(normalize(username));
+        }
+    }
+
+    private long tryAcquire(Map<String, AtomicLong> buckets, String key, int capacity, Duration refillPeriod, long now) {
+        long refillNanos = refillPeriod.toNanos();
+        long burstNanos = refillNanos * capacity;
+        while (true) {
+            AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            long fullAt = bucket.get();
+            long nextFullAt = now + Math.max(fullAt - now, 0) + refillNanos;
+            long wait = nextFullAt - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            // A bucket evicted between the lookup and the CAS is charged again through its replacement
+            if (bucket.compareAndSet(fullAt, nextFullAt) && buckets.get(key) == bucket) {
+                return 0;
+            }
+        }
+    }
+
+    private void reject(String username, String clientIp, String reason, long waitNanos) {
+        rejected.increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        LOGGER.warn("Rejecting login for user {} from {}: {}", username, clientIp, reason);
+        throw new TooManyRequestsException("Login temporarily blocked: " + reason, retryAfter);
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        // Full buckets hold no state a new bucket wouldn't; removal only succeeds for the instance that was checked
+        usernameBuckets.entrySet().removeIf(entry -> now - entry.getValue().get() > 0);
+        ipBuckets.entrySet().removeIf(entry -> now - entry.getValue().get() > 0);
+        failures.entrySet().removeIf(entry -> now - entry.getValue().blockedUntil.get() > 0
+                && now - entry.getValue().lastFailure > maxBackoff.toNanos());
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class FailureState {
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicLong blockedUntil = new AtomicLong(System.nanoTime());
+        volatile long lastFailure = System.nanoTime();
+    }
+}
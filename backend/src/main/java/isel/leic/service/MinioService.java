@@ -1,49 +1,110 @@
 package isel.leic.service;
 
 
-import isel.leic.model.FileSharing;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import isel.leic.model.storage.BucketDeletionJob;
+import isel.leic.model.storage.ByteRange;
 import isel.leic.model.storage.FileObject;
 import isel.leic.model.storage.FormData;
+import isel.leic.model.storage.ObjectDownload;
+import isel.leic.model.storage.ObjectPage;
 import isel.leic.repository.FileSharingRepository;
+import isel.leic.utils.BufferPool;
+import isel.leic.utils.ByteStreams;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
 import java.io.*;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @ApplicationScoped
 public class MinioService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MinioService.class);
+    private static final int MAX_MULTIPART_PARTS = 10000;
+    private static final int MAX_LIST_PAGE_SIZE = 1000;
+    private static final Duration PRESIGN_DURATION = Duration.ofMinutes(15);
 
     @Inject
     S3Client minioClient;
 
+    @Inject
+    S3AsyncClient minioAsyncClient;
+
     @Inject
     FileSharingRepository fileSharingRepository;
 
     @Inject
     S3Presigner preSigner;
 
+    @Inject
+    BufferPool bufferPool;
+
+    @Inject
+    MultipartUploadEngine multipartUploadEngine;
+
+    @Inject
+    MultipartPartLedger multipartPartLedger;
+
+    @Inject
+    BucketDeletionService bucketDeletionService;
+
+    @Inject
+    ObjectRenameEngine objectRenameEngine;
+
+    @Inject
+    ObjectListingCache objectListingCache;
+
+    @Inject
+    StorageMetrics storageMetrics;
+
+    @ConfigProperty(name = "minio.download.max-ranges", defaultValue = "16")
+    int maxRanges;
+
+    @ConfigProperty(name = "minio.multipart.presign.max-parts", defaultValue = "1000")
+    int maxPresignedParts;
+
+    @ConfigProperty(name = "minio.async.enabled", defaultValue = "false")
+    boolean asyncEnabled;
+
 
 
     public List<Bucket> listBuckets() {
         LOGGER.info("Listing buckets");
-        ListBucketsResponse response = minioClient.listBuckets();
+        ListBucketsResponse response = storageMetrics.record("ListBuckets", null, () -> minioClient.listBuckets());
         return response.buckets();
     }
 
@@ -52,7 +113,11 @@ public class MinioService {
         CreateBucketRequest request = CreateBucketRequest.builder()
                 .bucket(bucketName)
                 .build();
-        minioClient.createBucket(request);
+        try {
+            storageMetrics.record("CreateBucket", bucketName, () -> minioClient.createBucket(request));
+        } catch (BucketAlreadyOwnedByYouException e) {
+            LOGGER.info("Bucket already exists: {}", bucketName);
+        }
         LOGGER.info("Bucket created successfully: {}", bucketName);
         return "Bucket created successfully: " + bucketName;
     }
@@ -89,55 +154,159 @@ public class MinioService {
 
     public String deleteBucket(String bucketName) {
         LOGGER.info("Deleting bucket: {}", bucketName);
-        List<FileObject> objects = listObjects(bucketName, null, null);
-        if (!objects.isEmpty()) {
-            for (FileObject object : objects) {
-                deleteObject(bucketName, object.getObjectKey());
-            }
-            LOGGER.info("All objects deleted successfully from bucket: {}", bucketName);
-        } else {
-            LOGGER.info("No objects found in bucket: {}", bucketName);
-        }
+        objectListingCache.invalidate(bucketName);
+        return bucketDeletionService.deleteBucket(bucketName);
+    }
 
-        String result = deleteBucketWithoutObjects(bucketName);
-        return result;
+    public BucketDeletionJob scheduleBucketDeletion(String bucketName) {
+        objectListingCache.invalidate(bucketName);
+        return bucketDeletionService.submit(bucketName);
     }
 
-    private String deleteBucketWithoutObjects(String bucketName) {
-        DeleteBucketRequest request = DeleteBucketRequest.builder()
-                .bucket(bucketName)
-                .build();
-        minioClient.deleteBucket(request);
-        LOGGER.info("Bucket deleted successfully: {}", bucketName);
-        return "Bucket deleted successfully: " + bucketName;
+    public Optional<BucketDeletionJob> findBucketDeletion(String bucketName) {
+        return bucketDeletionService.findJob(bucketName);
     }
 
     public List<FileObject> listObjects(String bucketName, String prefix, String delimiter) {
         LOGGER.info("Listing objects in bucket: {} {} {}", bucketName, prefix == null ? "" : "with prefix '" + prefix + "'",delimiter == null ? "" : "with delimiter '" + delimiter + "'");
 
-        ListObjectsRequest request = ListObjectsRequest.builder()
+        return objectListingCache.get(bucketName, prefix, delimiter, () -> {
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .delimiter(delimiter)
+                    .build();
+            return storageMetrics.record("ListObjectsV2", bucketName, () -> minioClient.listObjectsV2Paginator(request).contents().stream()
+                    .map(FileObject::from)
+                    .toList());
+        });
+    }
+
+    public ObjectPage listObjectsPage(String bucketName, String prefix, String delimiter, int limit, String cursor) {
+        ListObjectsV2Request request = pageRequest(bucketName, prefix, delimiter, limit, cursor);
+        return toObjectPage(storageMetrics.record("ListObjectsV2", bucketName, () -> minioClient.listObjectsV2(request)));
+    }
+
+    public Uni<ObjectPage> listObjectsPageAsync(String bucketName, String prefix, String delimiter, int limit, String cursor) {
+        if (!asyncEnabled) {
+            return blocking(() -> listObjectsPage(bucketName, prefix, delimiter, limit, cursor));
+        }
+        return Uni.createFrom().item(() -> pageRequest(bucketName, prefix, delimiter, limit, cursor))
+                .onItem().transformToUni(request -> Uni.createFrom().completionStage(
+                        storageMetrics.recordAsync("ListObjectsV2", bucketName, () -> minioAsyncClient.listObjectsV2(request))))
+                .map(MinioService::toObjectPage);
+    }
+
+    private static ListObjectsV2Request pageRequest(String bucketName, String prefix, String delimiter, int limit, String cursor) {
+        if (limit < 1 || limit > MAX_LIST_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIST_PAGE_SIZE);
+        }
+        LOGGER.info("Listing page of {} objects in bucket: {} {}", limit, bucketName, prefix == null ? "" : "with prefix '" + prefix + "'");
+
+        return ListObjectsV2Request.builder()
                 .bucket(bucketName)
                 .prefix(prefix)
                 .delimiter(delimiter)
+                .maxKeys(limit)
+                .continuationToken(decodeCursor(cursor))
                 .build();
-        ListObjectsResponse response = minioClient.listObjects(request);
-        return response.contents().stream()
+    }
+
+    private static ObjectPage toObjectPage(ListObjectsV2Response response) {
+        List<FileObject> objects = response.contents().stream()
                 .map(FileObject::from)
                 .toList();
+        String nextCursor = Boolean.TRUE.equals(response.isTruncated()) ? encodeCursor(response.nextContinuationToken()) : null;
+        return new ObjectPage(objects, nextCursor);
+    }
+
+    public void forEachObjectPage(String bucketName, String prefix, String delimiter, Consumer<List<FileObject>> pageConsumer) {
+        LOGGER.info("Streaming object listing of bucket: {} {}", bucketName, prefix == null ? "" : "with prefix '" + prefix + "'");
+
+        String continuationToken = null;
+        do {
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .delimiter(delimiter)
+                    .continuationToken(continuationToken)
+                    .build();
+            ListObjectsV2Response page = storageMetrics.record("ListObjectsV2", bucketName, () -> minioClient.listObjectsV2(request));
+            pageConsumer.accept(page.contents().stream()
+                    .map(FileObject::from)
+                    .toList());
+            continuationToken = Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+        } while (continuationToken != null);
+    }
+
+    private static String encodeCursor(String continuationToken) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(continuationToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
 
     public String uploadObject(String bucketName, FormData formData) {
         LOGGER.info("Uploading object '{}' to bucket: {}", formData.getFilename(), bucketName);
+        if (multipartUploadEngine.shouldUseMultipart(formData.getData().length())) {
+            multipartUploadEngine.upload(bucketName, formData.getFilename(), formData.getMimetype(), formData.getData().toPath());
+            objectListingCache.invalidate(bucketName);
+            LOGGER.info("Object uploaded successfully: {}", formData.getFilename());
+            return "Object uploaded successfully: " + formData.getFilename();
+        }
         PutObjectRequest request = PutObjectRequest.builder()
                 .bucket(bucketName)
                 .key(formData.getFilename())
                 .contentType(formData.getMimetype())
                 .build();
-        minioClient.putObject(request, formData.getData().toPath());
+        storageMetrics.record("PutObject", bucketName, () -> minioClient.putObject(request, formData.getData().toPath()));
+        storageMetrics.addUploadedBytes(formData.getData().length());
+        storageMetrics.recordObjectSize(StorageMetrics.UPLOAD, formData.getData().length());
+        objectListingCache.invalidate(bucketName);
         LOGGER.info("Object uploaded successfully: {}", formData.getFilename());
         return "Object uploaded successfully: " + formData.getFilename();
     }
 
+    public Uni<String> uploadObjectAsync(String bucketName, FormData formData) {
+        long size = formData.getData().length();
+        if (!asyncEnabled || multipartUploadEngine.shouldUseMultipart(size)) {
+            return blocking(() -> uploadObject(bucketName, formData));
+        }
+        LOGGER.info("Uploading object '{}' to bucket: {}", formData.getFilename(), bucketName);
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(formData.getFilename())
+                .contentType(formData.getMimetype())
+                .build();
+        return Uni.createFrom().completionStage(() -> storageMetrics.recordAsync("PutObject", bucketName,
+                        () -> minioAsyncClient.putObject(request, AsyncRequestBody.fromFile(formData.getData().toPath()))))
+                .map(response -> {
+                    storageMetrics.addUploadedBytes(size);
+                    storageMetrics.recordObjectSize(StorageMetrics.UPLOAD, size);
+                    objectListingCache.invalidate(bucketName);
+                    LOGGER.info("Object uploaded successfully: {}", formData.getFilename());
+                    return "Object uploaded successfully: " + formData.getFilename();
+                });
+    }
+
+    public Uni<String> uploadObject(String bucketName, String objectKey, String contentType, ReadStream<Buffer> body) {
+        LOGGER.info("Streaming object '{}' to bucket: {}", objectKey, bucketName);
+        return multipartUploadEngine.upload(bucketName, objectKey, contentType, body)
+                .map(ignored -> {
+                    objectListingCache.invalidate(bucketName);
+                    LOGGER.info("Object uploaded successfully: {}", objectKey);
+                    return "Object uploaded successfully: " + objectKey;
+                });
+    }
+
     public URL generatePreSignedUploadUrl(String bucketName, String objectKey, String contentType) {
         LOGGER.info("Generating presigned upload URL for bucket: {}, object: {}", bucketName, objectKey);
 
@@ -149,8 +318,10 @@ public class MinioService {
 
 
         PresignedPutObjectRequest preSignedRequest = preSigner.presignPutObject(r -> r
-                .signatureDuration(Duration.ofMinutes(15))
+                .signatureDuration(PRESIGN_DURATION)
                 .putObjectRequest(objectRequest));
+        // The upload goes straight to storage, so listings of this bucket can't be cached while the URL is usable
+        objectListingCache.bypass(bucketName, PRESIGN_DURATION);
 
         URL url = preSignedRequest.url();
         LOGGER.info("Successfully generated presigned upload URL: {}", url);
@@ -168,7 +339,7 @@ public class MinioService {
 
 
         PresignedGetObjectRequest presignedRequest = preSigner.presignGetObject(r -> r
-                .signatureDuration(Duration.ofMinutes(15))
+                .signatureDuration(PRESIGN_DURATION)
                 .getObjectRequest(getObjectRequest));
 
         URL url = presignedRequest.url();
@@ -177,6 +348,30 @@ public class MinioService {
 
     }
 
+    public List<URL> generatePresignedUploadPartUrls(String bucketName, String objectKey, String uploadId, int firstPartNumber, int count) {
+        if (firstPartNumber < 1 || count < 1 || firstPartNumber + count - 1 > MAX_MULTIPART_PARTS || count > maxPresignedParts) {
+            throw new IllegalArgumentException("Invalid part range: " + firstPartNumber + " + " + count);
+        }
+        LOGGER.info("Generating {} presigned part upload URLs for bucket: {}, object: {}, upload: {}", count, bucketName, objectKey, uploadId);
+        // Parts are not listed until CompleteMultipartUpload, which goes through the backend and invalidates the listing cache
+
+        List<URL> urls = new ArrayList<>(count);
+        for (int partNumber = firstPartNumber; partNumber < firstPartNumber + count; partNumber++) {
+            UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .build();
+
+            PresignedUploadPartRequest preSignedRequest = preSigner.presignUploadPart(r -> r
+                    .signatureDuration(PRESIGN_DURATION)
+                    .uploadPartRequest(uploadPartRequest));
+            urls.add(preSignedRequest.url());
+        }
+        return urls;
+    }
+
     public String startMultipartUpload(String bucketName, String filename) {
         try {
             CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
@@ -184,7 +379,7 @@ public class MinioService {
                     .key(filename)
                     .build();
 
-            CreateMultipartUploadResponse response = minioClient.createMultipartUpload(request);
+            CreateMultipartUploadResponse response = storageMetrics.record("CreateMultipartUpload", bucketName, () -> minioClient.createMultipartUpload(request));
 
             return response.uploadId();
         } catch (Exception e) {
@@ -202,7 +397,30 @@ public class MinioService {
                     .partNumber(partNumber)
                     .build();
 
-            UploadPartResponse uploadResponse = minioClient.uploadPart(uploadRequest, data.toPath());
+            UploadPartResponse uploadResponse = storageMetrics.record("UploadPart", bucketName, () -> minioClient.uploadPart(uploadRequest, data.toPath()));
+            storageMetrics.addUploadedBytes(data.length());
+            multipartPartLedger.record(uploadId, partNumber, uploadResponse.eTag());
+
+            return uploadResponse.eTag();
+        } catch (Exception e) {
+            LOGGER.error("Error uploading part number {}: {}", partNumber, e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+    public String uploadPart(String bucketName, InputStream data, long contentLength, String filename, String uploadId, int partNumber) {
+        try {
+            UploadPartRequest uploadRequest = UploadPartRequest.builder()
+                    .bucket(bucketName)
+                    .key(filename)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength(contentLength)
+                    .build();
+
+            UploadPartResponse uploadResponse = storageMetrics.record("UploadPart", bucketName,
+                    () -> minioClient.uploadPart(uploadRequest, RequestBody.fromInputStream(data, contentLength)));
+            storageMetrics.addUploadedBytes(contentLength);
+            multipartPartLedger.record(uploadId, partNumber, uploadResponse.eTag());
 
             return uploadResponse.eTag();
         } catch (Exception e) {
@@ -210,6 +428,7 @@ public class MinioService {
             throw new RuntimeException(e);
         }
     }
+
     public void abortMultipartUpload(String bucketName, String filename, String uploadId) {
         try {
             AbortMultipartUploadRequest request = AbortMultipartUploadRequest.builder()
@@ -218,81 +437,317 @@ public class MinioService {
                     .uploadId(uploadId)
                     .build();
 
-            minioClient.abortMultipartUpload(request);
+            storageMetrics.record("AbortMultipartUpload", bucketName, () -> minioClient.abortMultipartUpload(request));
+            multipartPartLedger.forget(uploadId);
         } catch (Exception e) {
             LOGGER.error("Error aborting multipart upload for '{}': {}", filename, e.getMessage());
             throw new RuntimeException(e);
         }
     }
-    public void completeMultipartUpload(String bucketName, String filename, String uploadId) {
+    public void completeMultipartUpload(String bucketName, String filename, String uploadId, List<CompletedPart> parts, Integer partCount) {
         try {
-            ListPartsResponse listPartsResponse = minioClient.listParts(
-                    ListPartsRequest.builder()
-                            .bucket(bucketName)
-                            .key(filename)
-                            .uploadId(uploadId)
-                            .build());
-
-            List<Part> parts = listPartsResponse.parts();
-
-            List<CompletedPart> completedParts = parts.stream()
-                    .map(part -> CompletedPart.builder()
-                            .partNumber(part.partNumber())
-                            .eTag(part.eTag())
-                            .build())
-                    .collect(Collectors.toList());
+            List<CompletedPart> completedParts = parts != null && !parts.isEmpty()
+                    ? sortedParts(parts)
+                    : Optional.ofNullable(partCount)
+                            .flatMap(count -> multipartPartLedger.completedParts(uploadId, count))
+                            .orElseGet(() -> listUploadedParts(bucketName, filename, uploadId));
 
             CompletedMultipartUpload completedUpload = CompletedMultipartUpload.builder()
                     .parts(completedParts)
                     .build();
-            minioClient.completeMultipartUpload(
+            storageMetrics.record("CompleteMultipartUpload", bucketName, () -> minioClient.completeMultipartUpload(
                     CompleteMultipartUploadRequest.builder()
                             .bucket(bucketName)
                             .key(filename)
                             .uploadId(uploadId)
                             .multipartUpload(completedUpload)
-                            .build());
-            LOGGER.info("Multipart upload completed for '{}'", filename);
+                            .build()));
+            multipartPartLedger.forget(uploadId);
+            objectListingCache.invalidate(bucketName);
+            LOGGER.info("Multipart upload completed for '{}' with {} parts", filename, completedParts.size());
         } catch (Exception e) {
             LOGGER.error("Error completing multipart upload for '{}': {}", filename, e.getMessage());
             throw new RuntimeException(e);
         }
     }
 
+    private static List<CompletedPart> sortedParts(List<CompletedPart> parts) {
+        List<CompletedPart> sorted = parts.stream()
+                .sorted(Comparator.comparing(CompletedPart::partNumber))
+                .toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).partNumber().equals(sorted.get(i - 1).partNumber())) {
+                throw new IllegalArgumentException("Duplicate part number: " + sorted.get(i).partNumber());
+            }
+        }
+        return sorted;
+    }
+
+    private List<CompletedPart> listUploadedParts(String bucketName, String filename, String uploadId) {
+        LOGGER.info("No part list supplied for upload {}, listing parts of '{}'", uploadId, filename);
+        ListPartsRequest request = ListPartsRequest.builder()
+                .bucket(bucketName)
+                .key(filename)
+                .uploadId(uploadId)
+                .build();
+        return storageMetrics.record("ListParts", bucketName, () -> minioClient.listPartsPaginator(request).parts().stream()
+                .map(part -> CompletedPart.builder()
+                        .partNumber(part.partNumber())
+                        .eTag(part.eTag())
+                        .build())
+                .toList());
+    }
 
-    public byte[] downloadObject(String bucketName, String objectKey) throws IOException {
+
+    public ObjectDownload downloadObject(String bucketName, String objectKey) {
         LOGGER.info("Downloading object '{}' from bucket: {}", objectKey, bucketName);
         GetObjectRequest request = GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(objectKey)
                 .build();
-        ResponseInputStream<GetObjectResponse> responseInputStream = minioClient.getObject(request);
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        byte[] buffer = new byte[1024];
-        int bytesRead;
-        while ((bytesRead = responseInputStream.read(buffer)) != -1) {
-            outputStream.write(buffer, 0, bytesRead);
+        ResponseInputStream<GetObjectResponse> responseInputStream = storageMetrics.record("GetObject", bucketName, () -> minioClient.getObject(request));
+        return ObjectDownload.from(objectKey, responseInputStream.response(), streamingOutput(responseInputStream, true));
+    }
+
+    public StreamingOutput downloadObjectAsStream(String bucketName, String objectKey) {
+        return downloadObject(bucketName, objectKey).getBody();
+    }
+
+    public ObjectDownload downloadObject(String bucketName, String objectKey, List<ByteRange> ranges, String ifNoneMatch, String ifRange) {
+        if (ranges.size() > 1) {
+            return downloadObjectRanges(bucketName, objectKey, ranges, ifNoneMatch, ifRange);
+        }
+        ByteRange range = ranges.isEmpty() || (ifRange != null && !isEntityTag(ifRange)) ? null : ranges.get(0);
+        LOGGER.info("Downloading object '{}' from bucket: {} {}", objectKey, bucketName, range == null ? "" : "with range '" + range.toHeaderValue() + "'");
+
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .ifNoneMatch(ifNoneMatch);
+        if (range != null) {
+            request.range(range.toHeaderValue()).ifMatch(ifRange);
+        }
+        try {
+            ResponseInputStream<GetObjectResponse> responseInputStream = storageMetrics.record("GetObject", bucketName, () -> minioClient.getObject(request.build()));
+            ObjectDownload download = ObjectDownload.from(objectKey, responseInputStream.response(), streamingOutput(responseInputStream, range == null));
+            if (range != null) {
+                download.setStatus(206).setContentRange(responseInputStream.response().contentRange());
+            }
+            return download;
+        } catch (S3Exception e) {
+            switch (e.statusCode()) {
+                case 304:
+                    return notModified(objectKey, e);
+                case 412:
+                    if (range != null && ifRange != null) {
+                        LOGGER.info("If-Range '{}' does not match object '{}', sending full object", ifRange, objectKey);
+                        return downloadObject(bucketName, objectKey, Collections.emptyList(), ifNoneMatch, null);
+                    }
+                    throw e;
+                case 416:
+                    return unsatisfiableRange(objectKey, headObject(bucketName, objectKey).contentLength());
+                default:
+                    throw e;
+            }
         }
-        LOGGER.info("Object downloaded successfully: {}", objectKey);
-        return outputStream.toByteArray();
     }
 
-    public StreamingOutput downloadObjectAsStream(String bucketName, String objectKey) throws IOException {
-        LOGGER.info("Downloading object '{}' from bucket: {}", objectKey, bucketName);
-        GetObjectRequest request = GetObjectRequest.builder()
+    /**
+     * Non-blocking download of the whole object or a single range; the body is exposed as {@link ObjectDownload#getContent()}.
+     * If-Range is handled as in {@link #downloadObject(String, String, List, String, String)}.
+     */
+    public Uni<ObjectDownload> downloadObjectAsync(String bucketName, String objectKey, ByteRange requestedRange, String ifNoneMatch, String ifRange) {
+        ByteRange range = requestedRange == null || (ifRange != null && !isEntityTag(ifRange)) ? null : requestedRange;
+        String ifMatch = range == null ? null : ifRange;
+        Uni<ObjectDownload> download;
+        if (!asyncEnabled) {
+            download = blocking(() -> {
+                GetObjectRequest request = getRequest(bucketName, objectKey, range, ifNoneMatch, ifMatch);
+                ResponseInputStream<GetObjectResponse> responseInputStream = storageMetrics.record("GetObject", bucketName, () -> minioClient.getObject(request));
+                return toAsyncDownload(objectKey, range, responseInputStream.response(), ByteStreams.toMulti(responseInputStream, bufferPool.bufferSize()));
+            });
+        } else {
+            LOGGER.info("Downloading object '{}' from bucket: {} {}", objectKey, bucketName, range == null ? "" : "with range '" + range.toHeaderValue() + "'");
+            GetObjectRequest request = getRequest(bucketName, objectKey, range, ifNoneMatch, ifMatch);
+            download = Uni.createFrom().completionStage(() -> storageMetrics.recordAsync("GetObject", bucketName,
+                            () -> minioAsyncClient.getObject(request, AsyncResponseTransformer.toPublisher())))
+                    .map(publisher -> toAsyncDownload(objectKey, range, publisher.response(), ByteStreams.toMulti(publisher)))
+                    .onFailure(CompletionException.class).transform(e -> e.getCause() != null ? e.getCause() : e);
+        }
+        return download.onFailure(S3Exception.class).recoverWithUni(e -> {
+            if (((S3Exception) e).statusCode() == 412 && ifMatch != null) {
+                LOGGER.info("If-Range '{}' does not match object '{}', sending full object", ifRange, objectKey);
+                return downloadObjectAsync(bucketName, objectKey, null, ifNoneMatch, null);
+            }
+            return downloadFailure(bucketName, objectKey, (S3Exception) e);
+        });
+    }
+
+    private static GetObjectRequest getRequest(String bucketName, String objectKey, ByteRange range, String ifNoneMatch, String ifMatch) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .ifNoneMatch(ifNoneMatch);
+        if (range != null) {
+            request.range(range.toHeaderValue()).ifMatch(ifMatch);
+        }
+        return request.build();
+    }
+
+    private ObjectDownload toAsyncDownload(String objectKey, ByteRange range, GetObjectResponse response, Multi<Buffer> content) {
+        AtomicLong transferred = new AtomicLong();
+        ObjectDownload download = ObjectDownload.from(objectKey, response, null)
+                .setContent(content
+                        .onItem().invoke(chunk -> transferred.addAndGet(chunk.length()))
+                        .onCompletion().invoke(() -> {
+                            storageMetrics.addDownloadedBytes(transferred.get());
+                            if (range == null) {
+                                storageMetrics.recordObjectSize(StorageMetrics.DOWNLOAD, transferred.get());
+                            }
+                        }));
+        if (range != null) {
+            download.setStatus(206).setContentRange(response.contentRange());
+        }
+        return download;
+    }
+
+    private Uni<ObjectDownload> downloadFailure(String bucketName, String objectKey, S3Exception e) {
+        if (e.statusCode() == 304) {
+            return Uni.createFrom().item(notModified(objectKey, e));
+        }
+        if (e.statusCode() == 416) {
+            return blocking(() -> unsatisfiableRange(objectKey, headObject(bucketName, objectKey).contentLength()));
+        }
+        return Uni.createFrom().failure(e);
+    }
+
+    /**
+     * The client's If-None-Match may be a list or "*", so the ETag sent back is the one MinIO reports for the object.
+     */
+    private static ObjectDownload notModified(String objectKey, S3Exception e) {
+        LOGGER.info("Object '{}' not modified", objectKey);
+        String eTag = e.awsErrorDetails() != null && e.awsErrorDetails().sdkHttpResponse() != null
+                ? e.awsErrorDetails().sdkHttpResponse().firstMatchingHeader("ETag").orElse(null)
+                : null;
+        return new ObjectDownload().setObjectKey(objectKey).setStatus(304).setETag(eTag);
+    }
+
+    private static <T> Uni<T> blocking(Supplier<T> call) {
+        return Uni.createFrom().item(call).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private ObjectDownload downloadObjectRanges(String bucketName, String objectKey, List<ByteRange> ranges, String ifNoneMatch, String ifRange) {
+        LOGGER.info("Downloading {} ranges of object '{}' from bucket: {}", ranges.size(), objectKey, bucketName);
+        HeadObjectResponse head = headObject(bucketName, objectKey);
+        String eTag = head.eTag();
+        long size = head.contentLength();
+
+        if (ifNoneMatch != null && entityTagMatches(ifNoneMatch, eTag)) {
+            LOGGER.info("Object '{}' not modified", objectKey);
+            return new ObjectDownload().setObjectKey(objectKey).setStatus(304).setETag(eTag);
+        }
+        if ((ifRange != null && !ifRange.equals(eTag)) || ranges.size() > maxRanges) {
+            return downloadObject(bucketName, objectKey, Collections.emptyList(), null, null);
+        }
+
+        List<ByteRange> resolved = ranges.stream()
+                .map(range -> range.resolve(size))
+                .filter(Objects::nonNull)
+                .toList();
+        if (resolved.isEmpty()) {
+            return unsatisfiableRange(objectKey, size);
+        }
+        if (resolved.size() == 1) {
+            return downloadObject(bucketName, objectKey, resolved, null, eTag);
+        }
+
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        String contentType = head.contentType() != null ? head.contentType() : "application/octet-stream";
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+        for (ByteRange range : resolved) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: " + range.toContentRange(size) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range.length();
+        }
+        byte[] closingBoundary = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closingBoundary.length;
+
+        StreamingOutput body = output -> {
+            for (int i = 0; i < resolved.size(); i++) {
+                output.write(partHeaders.get(i));
+                GetObjectRequest partRequest = GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .range(resolved.get(i).toHeaderValue())
+                        .ifMatch(eTag)
+                        .build();
+                try (ResponseInputStream<GetObjectResponse> partStream = storageMetrics.record("GetObject", bucketName, () -> minioClient.getObject(partRequest))) {
+                    storageMetrics.addDownloadedBytes(bufferPool.transfer(partStream, output));
+                }
+            }
+            output.write(closingBoundary);
+        };
+
+        return new ObjectDownload()
+                .setObjectKey(objectKey)
+                .setStatus(206)
+                .setContentType(ObjectDownload.MULTIPART_BYTERANGES + "; boundary=" + boundary)
+                .setContentLength(contentLength)
+                .setETag(eTag)
+                .setLastModified(head.lastModified())
+                .setBody(body);
+    }
+
+    private ObjectDownload unsatisfiableRange(String objectKey, long size) {
+        LOGGER.info("Requested range not satisfiable for object '{}' of size {}", objectKey, size);
+        return new ObjectDownload()
+                .setObjectKey(objectKey)
+                .setStatus(416)
+                .setContentRange("bytes */" + size);
+    }
+
+    private HeadObjectResponse headObject(String bucketName, String objectKey) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
                 .bucket(bucketName)
                 .key(objectKey)
                 .build();
-        ResponseInputStream<GetObjectResponse> responseInputStream = minioClient.getObject(request);
-
-        return new StreamingOutput() {
-            @Override
-            public void write(OutputStream output) throws IOException {
-                byte[] buffer = new byte[1024];
-                int bytesRead;
-                while ((bytesRead = responseInputStream.read(buffer)) != -1) {
-                    output.write(buffer, 0, bytesRead);
+        return storageMetrics.record("HeadObject", bucketName, () -> minioClient.headObject(request));
+    }
+
+    private static boolean isEntityTag(String value) {
+        return value.startsWith("\"") || value.startsWith("W/\"");
+    }
+
+    private static boolean entityTagMatches(String header, String eTag) {
+        String normalized = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : header.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*")) {
+                return true;
+            }
+            if ((trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed).equals(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private StreamingOutput streamingOutput(ResponseInputStream<GetObjectResponse> responseInputStream, boolean wholeObject) {
+        return output -> {
+            try {
+                long transferred = bufferPool.transfer(responseInputStream, output);
+                storageMetrics.addDownloadedBytes(transferred);
+                if (wholeObject) {
+                    storageMetrics.recordObjectSize(StorageMetrics.DOWNLOAD, transferred);
                 }
+                LOGGER.info("Object streamed successfully: {} bytes", transferred);
+            } catch (IOException e) {
+                responseInputStream.abort();
+                throw e;
+            } finally {
                 responseInputStream.close();
             }
         };
@@ -304,49 +759,50 @@ public class MinioService {
                 .bucket(bucketName)
                 .key(objectKey)
                 .build();
-        minioClient.deleteObject(request);
+        storageMetrics.record("DeleteObject", bucketName, () -> minioClient.deleteObject(request));
+        objectListingCache.invalidate(bucketName);
         LOGGER.info("Object deleted successfully: {}", objectKey);
         return "Object deleted successfully: " + objectKey;
     }
 
-    @Transactional
+    public Uni<String> deleteObjectAsync(String bucketName, String objectKey) {
+        if (!asyncEnabled) {
+            return blocking(() -> deleteObject(bucketName, objectKey));
+        }
+        LOGGER.info("Deleting object '{}' from bucket: {}", objectKey, bucketName);
+        DeleteObjectRequest request = DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .build();
+        return Uni.createFrom().completionStage(() -> storageMetrics.recordAsync("DeleteObject", bucketName, () -> minioAsyncClient.deleteObject(request)))
+                .map(response -> {
+                    objectListingCache.invalidate(bucketName);
+                    LOGGER.info("Object deleted successfully: {}", objectKey);
+                    return "Object deleted successfully: " + objectKey;
+                });
+    }
+
     public String renameObject(Long userId,String bucketName, String objectKey, String newObjectKey) {
         LOGGER.info("Renaming object '{}' in bucket '{}' to '{}'", objectKey, bucketName, newObjectKey);
 
         try {
-            HeadObjectRequest headRequest = HeadObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(objectKey)
-                    .build();
-            HeadObjectResponse headResponse = minioClient.headObject(headRequest);
+            HeadObjectResponse headResponse = headObject(bucketName, objectKey);
             String contentType = headResponse.contentType();
 
-            renameFile(userId, bucketName, objectKey, newObjectKey);
-
             boolean isFolder = "application/x-directory".equals(contentType) || objectKey.endsWith("/");
             if (isFolder) {
                 LOGGER.info("The object '{}' is a folder.", objectKey);
-                ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                        .bucket(bucketName)
-                        .prefix(objectKey)
-                        .build();
-                ListObjectsV2Response listResponse = minioClient.listObjectsV2(listRequest);
-
-                for (S3Object s3Object : listResponse.contents()) {
-                    String oldKey = s3Object.key();
-                    String newKey = oldKey.replaceFirst(objectKey, newObjectKey);
-                    renameFile(userId, bucketName, oldKey, newKey);
-                }
-            }
-            Optional<List<FileSharing>> fileSharing = fileSharingRepository.findBySharedByUserIdAndFilename(userId, objectKey);
-            if(fileSharing.isPresent()){
-                for(FileSharing fs : fileSharing.get()){
-                    fs.setFilename(newObjectKey);
-                    fileSharingRepository.persist(fs);
-                }
+                objectRenameEngine.renamePrefix(bucketName, objectKey, newObjectKey);
+            } else {
+                objectRenameEngine.renameObject(bucketName, objectKey, newObjectKey, headResponse.contentLength());
             }
+
+            objectListingCache.invalidate(bucketName);
+
+            int updatedShares = fileSharingRepository.renameSharedFilenames(userId, objectKey, newObjectKey, isFolder);
+            LOGGER.info("Updated {} file shares after renaming '{}' to '{}'", updatedShares, objectKey, newObjectKey);
             return "Object renamed successfully";
-        } catch (S3Exception e) {
+        } catch (SdkException | CompletionException e) {
             String errorMessage = "Failed to rename object: " + objectKey + " to " + newObjectKey + " in bucket: " + bucketName;
             LOGGER.error(errorMessage, e);
             throw new RuntimeException(errorMessage, e);
@@ -355,16 +811,9 @@ public class MinioService {
 
     public void renameFile(Long userId, String bucketName, String objectKey, String newObjectKey){
         try{
-            CopyObjectRequest copyRequest = CopyObjectRequest.builder()
-                    .sourceBucket(bucketName)
-                    .sourceKey(objectKey)
-                    .destinationBucket(bucketName)
-                    .destinationKey(newObjectKey)
-                    .build();
-            CopyObjectResponse copyResponse = minioClient.copyObject(copyRequest);
-            LOGGER.info("Object renamed successfully: '{}' to '{}'", objectKey, newObjectKey);
-            deleteObject(bucketName, objectKey);
-        }catch (S3Exception e){
+            objectRenameEngine.renameObject(bucketName, objectKey, newObjectKey, headObject(bucketName, objectKey).contentLength());
+            objectListingCache.invalidate(bucketName);
+        }catch (SdkException | CompletionException e){
             String errorMessage = "Failed to rename object: " + objectKey + " to " + newObjectKey + " in bucket: " + bucketName;
             LOGGER.error(errorMessage, e);
             throw new RuntimeException(errorMessage, e);
@@ -378,7 +827,7 @@ public class MinioService {
                 .key(objectKey)
                 .build();
         try {
-            minioClient.headObject(request);
+            storageMetrics.record("HeadObject", bucketName, () -> minioClient.headObject(request));
             LOGGER.info("Object '{}' exists in bucket: {}", objectKey, bucketName);
             return true;
         } catch (CompletionException e) {
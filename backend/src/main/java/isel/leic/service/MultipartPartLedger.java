@@ -0,0 +1,82 @@
+package isel.leic.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@ApplicationScoped
+public class MultipartPartLedger {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "minio.multipart.ledger.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "minio.multipart.ledger.expiry", defaultValue = "PT24H")
+    Duration expiry;
+
+    private final Map<String, Entry> uploads = new ConcurrentHashMap<>();
+
+    // Client-driven uploads that have sent at least one part through the backend and not yet completed or expired
+    @PostConstruct
+    void init() {
+        meterRegistry.gaugeMapSize("minio.multipart.uploads.in_flight", Tags.of("source", "client"), uploads);
+    }
+
+    public void record(String uploadId, int partNumber, String eTag) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = uploads.get(uploadId);
+        if (entry == null) {
+            evictExpired();
+            entry = uploads.computeIfAbsent(uploadId, id -> new Entry());
+        }
+        entry.parts.put(partNumber, eTag);
+    }
+
+    /**
+     * Parts this instance saw for the upload, but only when they are exactly 1..expectedParts. Behind a load
+     * balancer a replica may have relayed just some of the parts, so anything else means listing them from MinIO.
+     */
+    public Optional<List<CompletedPart>> completedParts(String uploadId, int expectedParts) {
+        Entry entry = uploads.get(uploadId);
+        if (entry == null || expectedParts < 1 || entry.parts.size() != expectedParts
+                || entry.parts.firstKey() != 1 || entry.parts.lastKey() != expectedParts) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.parts.entrySet().stream()
+                .map(part -> CompletedPart.builder()
+                        .partNumber(part.getKey())
+                        .eTag(part.getValue())
+                        .build())
+                .toList());
+    }
+
+    public void forget(String uploadId) {
+        uploads.remove(uploadId);
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(expiry);
+        uploads.values().removeIf(entry -> entry.createdAt.isBefore(cutoff));
+    }
+
+    private static final class Entry {
+        private final Instant createdAt = Instant.now();
+        private final ConcurrentSkipListMap<Integer, String> parts = new ConcurrentSkipListMap<>();
+    }
+}
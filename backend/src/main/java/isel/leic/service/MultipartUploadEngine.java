@@ -0,0 +1,417 @@
+package isel.leic.service;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import isel.leic.utils.BoundedInputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ApplicationScoped
+public class MultipartUploadEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultipartUploadEngine.class);
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final int MAX_PARTS = 10000;
+
+    @Inject
+    S3Client minioClient;
+
+    @Inject
+    S3AsyncClient minioAsyncClient;
+
+    @Inject
+    StorageMetrics storageMetrics;
+
+    @ConfigProperty(name = "minio.async.enabled", defaultValue = "false")
+    boolean asyncEnabled;
+
+    @ConfigProperty(name = "minio.upload.multipart-threshold", defaultValue = "104857600")
+    long multipartThreshold;
+
+    @ConfigProperty(name = "minio.upload.part-size", defaultValue = "16777216")
+    long partSize;
+
+    @ConfigProperty(name = "minio.upload.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "minio.upload.max-threads", defaultValue = "16")
+    int maxThreads;
+
+    @ConfigProperty(name = "minio.upload.part-retries", defaultValue = "3")
+    int partRetries;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(maxThreads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean shouldUseMultipart(long size) {
+        return size > multipartThreshold;
+    }
+
+    public void upload(String bucketName, String objectKey, String contentType, Path source) {
+        long size;
+        try {
+            size = Files.size(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long effectivePartSize = effectivePartSize(size);
+        int partCount = (int) ((size + effectivePartSize - 1) / effectivePartSize);
+        LOGGER.info("Uploading object '{}' to bucket: {} in {} parts of {} bytes", objectKey, bucketName, partCount, effectivePartSize);
+
+        String uploadId = createUpload(bucketName, objectKey, contentType);
+
+        try {
+            List<CompletedPart> completedParts = uploadParts(bucketName, objectKey, uploadId, source, size, effectivePartSize, partCount);
+            completeUpload(bucketName, objectKey, uploadId, completedParts);
+            storageMetrics.recordObjectSize(StorageMetrics.UPLOAD, size);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error uploading '{}' in parts, aborting upload {}: {}", objectKey, uploadId, e.getMessage());
+            abortQuietly(bucketName, objectKey, uploadId);
+            throw e;
+        } finally {
+            storageMetrics.multipartFinished();
+        }
+    }
+
+    public Uni<Void> upload(String bucketName, String objectKey, String contentType, ReadStream<Buffer> body) {
+        return Uni.createFrom().emitter(emitter -> new StreamingUpload(bucketName, objectKey, contentType, body, emitter).start());
+    }
+
+    private List<CompletedPart> uploadParts(String bucketName, String objectKey, String uploadId, Path source,
+                                            long size, long effectivePartSize, int partCount) {
+        Semaphore window = new Semaphore(parallelism);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<CompletableFuture<CompletedPart>> futures = new ArrayList<>(partCount);
+
+        for (int i = 0; i < partCount && !failed.get(); i++) {
+            int partNumber = i + 1;
+            long offset = i * effectivePartSize;
+            long length = Math.min(effectivePartSize, size - offset);
+            window.acquireUninterruptibly();
+            CompletableFuture<CompletedPart> future = CompletableFuture
+                    .supplyAsync(() -> uploadPartWithRetry(bucketName, objectKey, uploadId, source, partNumber, offset, length), executor)
+                    .whenComplete((part, error) -> {
+                        if (error != null) {
+                            failed.set(true);
+                        }
+                        window.release();
+                    });
+            futures.add(future);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .sorted(Comparator.comparing(CompletedPart::partNumber))
+                .toList();
+    }
+
+    private CompletedPart uploadPartWithRetry(String bucketName, String objectKey, String uploadId, Path source,
+                                              int partNumber, long offset, long length) {
+        RequestBody body = RequestBody.fromContentProvider(() -> openSlice(source, offset, length), length, "application/octet-stream");
+        return uploadPartWithRetry(bucketName, objectKey, uploadId, partNumber, length, body);
+    }
+
+    private CompletedPart uploadPartWithRetry(String bucketName, String objectKey, String uploadId,
+                                              int partNumber, long length, RequestBody body) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength(length)
+                .build();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                UploadPartResponse response = storageMetrics.record("UploadPart", bucketName, () -> minioClient.uploadPart(request, body));
+                storageMetrics.addUploadedBytes(length);
+                return CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .build();
+            } catch (SdkException e) {
+                if (attempt > partRetries) {
+                    LOGGER.error("Giving up on part number {} of '{}' after {} attempts", partNumber, objectKey, attempt);
+                    throw e;
+                }
+                LOGGER.warn("Retrying part number {} of '{}' (attempt {}): {}", partNumber, objectKey, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private CompletableFuture<String> createUploadAsync(String bucketName, String objectKey, String contentType) {
+        if (!asyncEnabled) {
+            return CompletableFuture.supplyAsync(() -> createUpload(bucketName, objectKey, contentType), executor);
+        }
+        return storageMetrics.recordAsync("CreateMultipartUpload", bucketName, () -> minioAsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .contentType(contentType)
+                        .build()))
+                .thenApply(response -> {
+                    storageMetrics.multipartStarted();
+                    return response.uploadId();
+                });
+    }
+
+    private CompletableFuture<CompletedPart> uploadPartAsync(String bucketName, String objectKey, String uploadId, int partNumber, byte[] chunk) {
+        if (!asyncEnabled) {
+            RequestBody requestBody = RequestBody.fromContentProvider(() -> new ByteArrayInputStream(chunk), chunk.length, "application/octet-stream");
+            return CompletableFuture.supplyAsync(() -> uploadPartWithRetry(bucketName, objectKey, uploadId, partNumber, chunk.length, requestBody), executor);
+        }
+        return uploadPartAsync(bucketName, objectKey, uploadId, partNumber, chunk, 1);
+    }
+
+    private CompletableFuture<CompletedPart> uploadPartAsync(String bucketName, String objectKey, String uploadId, int partNumber, byte[] chunk, int attempt) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) chunk.length)
+                .build();
+        return storageMetrics.recordAsync("UploadPart", bucketName, () -> minioAsyncClient.uploadPart(request, AsyncRequestBody.fromBytesUnsafe(chunk)))
+                .thenApply(response -> {
+                    storageMetrics.addUploadedBytes(chunk.length);
+                    return CompletedPart.builder()
+                            .partNumber(partNumber)
+                            .eTag(response.eTag())
+                            .build();
+                })
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (!(cause instanceof SdkException) || attempt > partRetries) {
+                        LOGGER.error("Giving up on part number {} of '{}' after {} attempts", partNumber, objectKey, attempt);
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    LOGGER.warn("Retrying part number {} of '{}' (attempt {}): {}", partNumber, objectKey, attempt, cause.getMessage());
+                    Executor delayed = CompletableFuture.delayedExecutor(100L << Math.min(attempt, 6), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, delayed)
+                            .thenCompose(ignored -> uploadPartAsync(bucketName, objectKey, uploadId, partNumber, chunk, attempt + 1));
+                });
+    }
+
+    private CompletableFuture<Void> completeUploadAsync(String bucketName, String objectKey, String uploadId, List<CompletedPart> completedParts) {
+        if (!asyncEnabled) {
+            return CompletableFuture.runAsync(() -> completeUpload(bucketName, objectKey, uploadId, completedParts), executor);
+        }
+        return storageMetrics.recordAsync("CompleteMultipartUpload", bucketName, () -> minioAsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .uploadId(uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                        .build()))
+                .thenRun(() -> LOGGER.info("Multipart upload completed for '{}'", objectKey));
+    }
+
+    private String createUpload(String bucketName, String objectKey, String contentType) {
+        String uploadId = storageMetrics.record("CreateMultipartUpload", bucketName, () -> minioClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .contentType(contentType)
+                .build())).uploadId();
+        storageMetrics.multipartStarted();
+        return uploadId;
+    }
+
+    private void completeUpload(String bucketName, String objectKey, String uploadId, List<CompletedPart> completedParts) {
+        storageMetrics.record("CompleteMultipartUpload", bucketName, () -> minioClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build()));
+        LOGGER.info("Multipart upload completed for '{}'", objectKey);
+    }
+
+    private long effectivePartSize(long size) {
+        long minimumForPartLimit = (size + MAX_PARTS - 1) / MAX_PARTS;
+        return Math.max(Math.max(partSize, MIN_PART_SIZE), minimumForPartLimit);
+    }
+
+    private static BoundedInputStream openSlice(Path source, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+            channel.position(offset);
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(100L << Math.min(attempt, 6));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying part upload", e);
+        }
+    }
+
+    private void abortQuietly(String bucketName, String objectKey, String uploadId) {
+        try {
+            storageMetrics.record("AbortMultipartUpload", bucketName, () -> minioClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build()));
+        } catch (SdkException e) {
+            LOGGER.error("Error aborting multipart upload {} for '{}': {}", uploadId, objectKey, e.getMessage());
+        }
+    }
+
+    private final class StreamingUpload {
+        private final String bucketName;
+        private final String objectKey;
+        private final String contentType;
+        private final ReadStream<Buffer> body;
+        private final UniEmitter<? super Void> emitter;
+        private final long chunkSize = Math.max(partSize, MIN_PART_SIZE);
+        private final List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean paused = new AtomicBoolean();
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private volatile String uploadId;
+        private Buffer current = Buffer.buffer();
+        private int nextPartNumber = 1;
+        private long totalBytes;
+
+        private StreamingUpload(String bucketName, String objectKey, String contentType, ReadStream<Buffer> body, UniEmitter<? super Void> emitter) {
+            this.bucketName = bucketName;
+            this.objectKey = objectKey;
+            this.contentType = contentType;
+            this.body = body;
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            LOGGER.info("Streaming object '{}' to bucket: {} in parts of {} bytes", objectKey, bucketName, chunkSize);
+            body.pause();
+            body.handler(this::onData);
+            body.endHandler(ignored -> onEnd());
+            body.exceptionHandler(this::fail);
+            createUploadAsync(bucketName, objectKey, contentType)
+                    .whenComplete((id, error) -> {
+                        if (error != null) {
+                            fail(error);
+                        } else {
+                            uploadId = id;
+                            body.resume();
+                        }
+                    });
+        }
+
+        private void onData(Buffer buffer) {
+            if (failed.get()) {
+                return;
+            }
+            current.appendBuffer(buffer);
+            totalBytes += buffer.length();
+            while (current.length() >= chunkSize) {
+                byte[] chunk = current.getBytes(0, (int) chunkSize);
+                current = current.getBuffer((int) chunkSize, current.length());
+                submitPart(chunk);
+            }
+        }
+
+        private void onEnd() {
+            if (failed.get()) {
+                return;
+            }
+            if (current.length() > 0 || parts.isEmpty()) {
+                submitPart(current.getBytes());
+            }
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                    .thenCompose(ignored -> completeUploadAsync(bucketName, objectKey, uploadId, parts.stream().map(CompletableFuture::join).toList()))
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            fail(error);
+                        } else {
+                            storageMetrics.multipartFinished();
+                            storageMetrics.recordObjectSize(StorageMetrics.UPLOAD, totalBytes);
+                            emitter.complete(null);
+                        }
+                    });
+        }
+
+        private void submitPart(byte[] chunk) {
+            int partNumber = nextPartNumber++;
+            if (inFlight.incrementAndGet() >= parallelism && paused.compareAndSet(false, true)) {
+                body.pause();
+                resumeIfDrained();
+            }
+            CompletableFuture<CompletedPart> future = uploadPartAsync(bucketName, objectKey, uploadId, partNumber, chunk)
+                    .whenComplete((part, error) -> {
+                        inFlight.decrementAndGet();
+                        if (error != null) {
+                            fail(error);
+                        } else {
+                            resumeIfDrained();
+                        }
+                    });
+            parts.add(future);
+        }
+
+        private void resumeIfDrained() {
+            if (inFlight.get() < parallelism && paused.compareAndSet(true, false)) {
+                body.resume();
+            }
+        }
+
+        private void fail(Throwable error) {
+            if (!failed.compareAndSet(false, true)) {
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            LOGGER.error("Error streaming '{}' to bucket {}: {}", objectKey, bucketName, cause.getMessage());
+            if (uploadId != null) {
+                storageMetrics.multipartFinished();
+                executor.execute(() -> abortQuietly(bucketName, objectKey, uploadId));
+            }
+            emitter.fail(cause);
+        }
+    }
+}
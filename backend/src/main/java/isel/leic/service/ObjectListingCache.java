@@ -0,0 +1,157 @@
+package isel.leic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import isel.leic.model.storage.FileObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@ApplicationScoped
+public class ObjectListingCache {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "minio.listing-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "minio.listing-cache.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @ConfigProperty(name = "minio.listing-cache.max-objects", defaultValue = "1000000")
+    long maxObjects;
+
+    @ConfigProperty(name = "minio.listing-cache.ttl", defaultValue = "PT30S")
+    Duration ttl;
+
+    private final Map<String, AtomicLong> bucketGenerations = new ConcurrentHashMap<>();
+    // Buckets with an outstanding presigned upload, which lands without the backend seeing it
+    private final Map<String, Long> bypassedUntil = new ConcurrentHashMap<>();
+    // Contended monitors pin virtual threads to their carrier, so the LRU map is guarded by a lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, Entry> entries;
+    private long cachedObjects;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        hits = Counter.builder("minio.listing.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("minio.listing.cache.requests").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gauge("minio.listing.cache.size", this, cache -> cache.size());
+        meterRegistry.gauge("minio.listing.cache.objects", this, cache -> cache.cachedObjects());
+    }
+
+    public List<FileObject> get(String bucketName, String prefix, String delimiter, Supplier<List<FileObject>> loader) {
+        long now = System.nanoTime();
+        if (!enabled || isBypassed(bucketName, now)) {
+            return loader.get();
+        }
+        String key = key(bucketName, prefix, delimiter);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.increment();
+                return entry.objects;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        List<FileObject> objects = loader.get();
+        if (weight(objects) > maxObjects) {
+            return objects;
+        }
+        lock.lock();
+        try {
+            Entry previous = entries.put(key, new Entry(objects, now + ttl.toNanos()));
+            if (previous != null) {
+                cachedObjects -= weight(previous.objects);
+            }
+            cachedObjects += weight(objects);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+        return objects;
+    }
+
+    public void invalidate(String bucketName) {
+        bucketGenerations.computeIfAbsent(bucketName, name -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Invalidates the bucket and skips the cache for it until {@code window} has passed, for writes such as presigned
+     * uploads that reach storage at some point within the window without going through the backend.
+     */
+    public void bypass(String bucketName, Duration window) {
+        long until = System.nanoTime() + window.toNanos();
+        bypassedUntil.merge(bucketName, until, (current, requested) -> requested - current > 0 ? requested : current);
+        invalidate(bucketName);
+    }
+
+    private boolean isBypassed(String bucketName, long now) {
+        Long until = bypassedUntil.get(bucketName);
+        if (until == null) {
+            return false;
+        }
+        if (until - now > 0) {
+            return true;
+        }
+        bypassedUntil.remove(bucketName, until);
+        return false;
+    }
+
+    // Entries are weighed by object count, so one listing of a large bucket counts as much as many small ones
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext() && (entries.size() > maxEntries || cachedObjects > maxObjects)) {
+            cachedObjects -= weight(eldest.next().objects);
+            eldest.remove();
+        }
+    }
+
+    private static long weight(List<FileObject> objects) {
+        return Math.max(1, objects.size());
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long cachedObjects() {
+        lock.lock();
+        try {
+            return cachedObjects;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String key(String bucketName, String prefix, String delimiter) {
+        long generation = bucketGenerations.computeIfAbsent(bucketName, name -> new AtomicLong()).get();
+        return bucketName + '\u0000' + generation + '\u0000' + (prefix == null ? "" : prefix) + '\u0000' + (delimiter == null ? "" : delimiter);
+    }
+
+    private record Entry(List<FileObject> objects, long expiresAt) {
+    }
+}
@@ -0,0 +1,159 @@
+package isel.leic.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+@ApplicationScoped
+public class ObjectRenameEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ObjectRenameEngine.class);
+    private static final long MAX_SINGLE_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    @Inject
+    S3Client minioClient;
+
+    @Inject
+    BucketDeletionService bucketDeletionService;
+
+    @Inject
+    StorageMetrics storageMetrics;
+
+    @ConfigProperty(name = "minio.rename.parallelism", defaultValue = "8")
+    int parallelism;
+
+    @ConfigProperty(name = "minio.rename.copy-part-size", defaultValue = "536870912")
+    long copyPartSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int renameObject(String bucketName, String objectKey, String newObjectKey, long size) {
+        copy(bucketName, objectKey, newObjectKey, size);
+        bucketDeletionService.deleteKeys(bucketName, List.of(objectKey));
+        LOGGER.info("Object renamed successfully: '{}' to '{}'", objectKey, newObjectKey);
+        return 1;
+    }
+
+    /**
+     * Lists every source key before the first copy, so the listing never sees the copies it causes. Renaming a folder
+     * into its own subtree is rejected: old and new keys would overlap and deleting the sources could remove copies.
+     */
+    public int renamePrefix(String bucketName, String prefix, String newPrefix) {
+        if (newPrefix.startsWith(prefix)) {
+            throw new IllegalArgumentException("Cannot move folder '" + prefix + "' into itself: '" + newPrefix + "'");
+        }
+        LOGGER.info("Renaming all objects under '{}' in bucket '{}' to '{}'", prefix, bucketName, newPrefix);
+        List<S3Object> sources = listKeys(bucketName, prefix);
+
+        Semaphore window = new Semaphore(parallelism);
+        List<CompletableFuture<Void>> copies = new ArrayList<>(sources.size());
+        for (S3Object s3Object : sources) {
+            String oldKey = s3Object.key();
+            String newKey = newPrefix + oldKey.substring(prefix.length());
+            window.acquireUninterruptibly();
+            copies.add(CompletableFuture
+                    .runAsync(() -> copy(bucketName, oldKey, newKey, s3Object.size()), executor)
+                    .whenComplete((ignored, error) -> window.release()));
+        }
+        CompletableFuture.allOf(copies.toArray(new CompletableFuture[0])).join();
+
+        List<String> copiedKeys = sources.stream().map(S3Object::key).toList();
+        bucketDeletionService.deleteKeys(bucketName, copiedKeys);
+        LOGGER.info("Renamed {} objects from '{}' to '{}'", copiedKeys.size(), prefix, newPrefix);
+        return copiedKeys.size();
+    }
+
+    private List<S3Object> listKeys(String bucketName, String prefix) {
+        List<S3Object> objects = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .continuationToken(continuationToken)
+                    .build();
+            ListObjectsV2Response page = storageMetrics.record("ListObjectsV2", bucketName, () -> minioClient.listObjectsV2(listRequest));
+            objects.addAll(page.contents());
+            continuationToken = Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+        } while (continuationToken != null);
+        return objects;
+    }
+
+    private void copy(String bucketName, String sourceKey, String destinationKey, long size) {
+        if (size > MAX_SINGLE_COPY_SIZE) {
+            multipartCopy(bucketName, sourceKey, destinationKey, size);
+            return;
+        }
+        CopyObjectRequest copyRequest = CopyObjectRequest.builder()
+                .sourceBucket(bucketName)
+                .sourceKey(sourceKey)
+                .destinationBucket(bucketName)
+                .destinationKey(destinationKey)
+                .build();
+        storageMetrics.record("CopyObject", bucketName, () -> minioClient.copyObject(copyRequest));
+    }
+
+    private void multipartCopy(String bucketName, String sourceKey, String destinationKey, long size) {
+        LOGGER.info("Copying '{}' ({} bytes) to '{}' with multipart copy", sourceKey, size, destinationKey);
+        String uploadId = storageMetrics.record("CreateMultipartUpload", bucketName, () -> minioClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(destinationKey)
+                .build())).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += copyPartSize, partNumber++) {
+                long last = Math.min(offset + copyPartSize, size) - 1;
+                UploadPartCopyRequest partRequest = UploadPartCopyRequest.builder()
+                        .sourceBucket(bucketName)
+                        .sourceKey(sourceKey)
+                        .destinationBucket(bucketName)
+                        .destinationKey(destinationKey)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .copySourceRange("bytes=" + offset + "-" + last)
+                        .build();
+                UploadPartCopyResponse response = storageMetrics.record("UploadPartCopy", bucketName, () -> minioClient.uploadPartCopy(partRequest));
+                parts.add(CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.copyPartResult().eTag())
+                        .build());
+            }
+            storageMetrics.record("CompleteMultipartUpload", bucketName, () -> minioClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(destinationKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build()));
+        } catch (SdkException e) {
+            LOGGER.error("Error copying '{}' to '{}', aborting upload {}: {}", sourceKey, destinationKey, uploadId, e.getMessage());
+            storageMetrics.record("AbortMultipartUpload", bucketName, () -> minioClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(destinationKey)
+                    .uploadId(uploadId)
+                    .build()));
+            throw e;
+        }
+    }
+}
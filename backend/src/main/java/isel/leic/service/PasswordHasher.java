@@ -0,0 +1,95 @@
+package isel.leic.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import isel.leic.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+
+@ApplicationScoped
+public class PasswordHasher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHasher.class);
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "security.bcrypt.cost", defaultValue = "10")
+    int cost;
+
+    @ConfigProperty(name = "security.bcrypt.threads", defaultValue = "4")
+    int threads;
+
+    @ConfigProperty(name = "security.bcrypt.queue-size", defaultValue = "64")
+    int queueSize;
+
+    @ConfigProperty(name = "security.bcrypt.retry-after-seconds", defaultValue = "1")
+    long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Timer hashTimer;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
+        hashTimer = Timer.builder("auth.password.hash").register(meterRegistry);
+        verifyTimer = Timer.builder("auth.password.verify").register(meterRegistry);
+        meterRegistry.gauge("auth.password.queue.size", executor, pool -> pool.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public String hash(String password) {
+        return submit(() -> hashTimer.record(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost))));
+    }
+
+    public boolean verify(String password, String hashedPassword) {
+        return submit(() -> verifyTimer.record(() -> BCrypt.checkpw(password, hashedPassword)));
+    }
+
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+            return true;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6)) != cost;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Password hashing pool saturated, rejecting request");
+            throw new TooManyRequestsException("Too many concurrent authentication requests", retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package isel.leic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Meters for the S3 calls made on behalf of requests: one timer per operation, bucket class and outcome,
+ * transferred bytes, object sizes, in-flight server-side multipart uploads and sharing fan-out.
+ */
+@ApplicationScoped
+public class StorageMetrics {
+
+    public static final String UPLOAD = "upload";
+    public static final String DOWNLOAD = "download";
+    private static final double MAX_OBJECT_SIZE = 5L * 1024 * 1024 * 1024 * 1024;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "user.bucket.suffix")
+    String bucketSuffix;
+
+    @ConfigProperty(name = "metrics.storage.percentile-histograms", defaultValue = "true")
+    boolean percentileHistograms;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> fanOuts = new ConcurrentHashMap<>();
+    private final AtomicInteger multipartUploads = new AtomicInteger();
+    private Pattern userBucket;
+    private Counter uploadedBytes;
+    private Counter downloadedBytes;
+    private DistributionSummary uploadedObjectSize;
+    private DistributionSummary downloadedObjectSize;
+
+    @PostConstruct
+    void init() {
+        userBucket = Pattern.compile("\\d+" + Pattern.quote(bucketSuffix));
+        uploadedBytes = transferCounter(UPLOAD);
+        downloadedBytes = transferCounter(DOWNLOAD);
+        uploadedObjectSize = objectSizeSummary(UPLOAD);
+        downloadedObjectSize = objectSizeSummary(DOWNLOAD);
+        meterRegistry.gauge("minio.multipart.uploads.in_flight", Tags.of("source", "server"), multipartUploads, AtomicInteger::get);
+    }
+
+    public <T> T record(String operation, String bucketName, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            timer(operation, bucketClass(bucketName), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public <T> CompletableFuture<T> recordAsync(String operation, String bucketName, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            String outcome = cause == null ? "success" : outcome(cause);
+            timer(operation, bucketClass(bucketName), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    public void record(String operation, String bucketName, Runnable call) {
+        record(operation, bucketName, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public void addUploadedBytes(long bytes) {
+        uploadedBytes.increment(bytes);
+    }
+
+    public void addDownloadedBytes(long bytes) {
+        downloadedBytes.increment(bytes);
+    }
+
+    public void recordObjectSize(String direction, long bytes) {
+        (UPLOAD.equals(direction) ? uploadedObjectSize : downloadedObjectSize).record(bytes);
+    }
+
+    public void multipartStarted() {
+        multipartUploads.incrementAndGet();
+    }
+
+    public void multipartFinished() {
+        multipartUploads.decrementAndGet();
+    }
+
+    public void recordFanOut(String operation, int size) {
+        fanOuts.computeIfAbsent(operation, op -> DistributionSummary.builder("sharing.fanout")
+                .description("Recipients of a share, or owner buckets listed for a share page")
+                .tag("operation", op)
+                .publishPercentileHistogram(percentileHistograms)
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000.0)
+                .register(meterRegistry)).record(size);
+    }
+
+    String bucketClass(String bucketName) {
+        return bucketName != null && userBucket.matcher(bucketName).matches() ? "user" : "other";
+    }
+
+    static String outcome(Throwable error) {
+        if (error instanceof SdkServiceException serviceException) {
+            int status = serviceException.statusCode();
+            if (status == 304) {
+                return "not_modified";
+            }
+            if (status == 404) {
+                return "not_found";
+            }
+            if (status == 412) {
+                return "precondition_failed";
+            }
+            return status >= 500 ? "server_error" : "client_error";
+        }
+        return error instanceof SdkClientException ? "io_error" : "error";
+    }
+
+    private Timer timer(String operation, String bucketClass, String outcome) {
+        return timers.computeIfAbsent(operation + '|' + bucketClass + '|' + outcome, key -> Timer.builder("minio.requests")
+                .description("S3 calls made against MinIO")
+                .tag("operation", operation)
+                .tag("bucket", bucketClass)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(percentileHistograms)
+                .register(meterRegistry));
+    }
+
+    private Counter transferCounter(String direction) {
+        return Counter.builder("minio.transfer.bytes")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary objectSizeSummary(String direction) {
+        return DistributionSummary.builder("minio.object.size")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .publishPercentileHistogram(percentileHistograms)
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(MAX_OBJECT_SIZE)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,133 @@
+package isel.leic.service;
+
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.build.Jwt;
+import io.smallrye.jwt.build.JwtClaimsBuilder;
+import isel.leic.utils.TokenUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+@ApplicationScoped
+public class TokenService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenService.class);
+    private static final String FILE_PREFIX = "file:";
+
+    @ConfigProperty(name = "jwt.private-key-location")
+    String privateKeyLocation;
+
+    @ConfigProperty(name = "jwt.signature-algorithm", defaultValue = "RS256")
+    SignatureAlgorithm signatureAlgorithm;
+
+    @ConfigProperty(name = "jwt.key-reload-interval", defaultValue = "PT1M")
+    Duration keyReloadInterval;
+
+    @ConfigProperty(name = "mp.jwt.verify.issuer")
+    String tokenIssuer;
+
+    @ConfigProperty(name = "com.cloudshare.quarkusjwt.jwt.duration")
+    Long tokenDuration;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile SigningKey signingKey;
+
+    @PostConstruct
+    void init() {
+        signingKey = loadSigningKey();
+        LOGGER.info("Loaded {} signing key from {}", signatureAlgorithm, privateKeyLocation);
+    }
+
+    public String generateToken(Long userId) {
+        return generateToken(userId, tokenIssuer, tokenDuration);
+    }
+
+    public String generateToken(Long userId, String issuer, Long duration) {
+        JwtClaimsBuilder claimsBuilder = Jwt.claims();
+        long currentTimeInSecs = TokenUtils.currentTimeInSecs();
+
+        claimsBuilder.issuer(issuer);
+        claimsBuilder.subject(String.valueOf(userId));
+        claimsBuilder.issuedAt(currentTimeInSecs);
+        claimsBuilder.expiresAt(currentTimeInSecs + duration);
+
+        return claimsBuilder.jws().algorithm(signatureAlgorithm).sign(currentKey());
+    }
+
+    public void reload() {
+        signingKey = loadSigningKey();
+        LOGGER.info("Reloaded signing key from {}", privateKeyLocation);
+    }
+
+    private PrivateKey currentKey() {
+        SigningKey key = signingKey;
+        if (!isFileLocation() || keyReloadInterval.isZero() || System.nanoTime() - key.checkedAt() < keyReloadInterval.toNanos()) {
+            return key.privateKey();
+        }
+        // A lock rather than a monitor: the reload reads the key file, which would pin a virtual thread
+        reloadLock.lock();
+        try {
+            key = signingKey;
+            if (System.nanoTime() - key.checkedAt() < keyReloadInterval.toNanos()) {
+                return key.privateKey();
+            }
+            try {
+                long lastModified = Files.getLastModifiedTime(keyPath()).toMillis();
+                if (lastModified != key.lastModified()) {
+                    signingKey = loadSigningKey();
+                    LOGGER.info("Signing key at {} changed, reloaded", privateKeyLocation);
+                } else {
+                    signingKey = new SigningKey(key.privateKey(), key.lastModified(), System.nanoTime());
+                }
+            } catch (Exception e) {
+                LOGGER.error("Error reloading signing key from {}, keeping the current key: {}", privateKeyLocation, e.getMessage());
+                signingKey = new SigningKey(key.privateKey(), key.lastModified(), System.nanoTime());
+            }
+            return signingKey.privateKey();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private SigningKey loadSigningKey() {
+        try {
+            if (isFileLocation()) {
+                Path path = keyPath();
+                long lastModified = Files.getLastModifiedTime(path).toMillis();
+                PrivateKey privateKey = TokenUtils.decodePrivateKey(Files.readString(path, StandardCharsets.UTF_8), keyAlgorithm());
+                return new SigningKey(privateKey, lastModified, System.nanoTime());
+            }
+            return new SigningKey(TokenUtils.readPrivateKey(privateKeyLocation, keyAlgorithm()), 0L, System.nanoTime());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to load signing key from " + privateKeyLocation, e);
+        }
+    }
+
+    private String keyAlgorithm() {
+        return switch (signatureAlgorithm) {
+            case ES256, ES384, ES512 -> "EC";
+            case EDDSA -> "EdDSA";
+            default -> "RSA";
+        };
+    }
+
+    private boolean isFileLocation() {
+        return privateKeyLocation.startsWith(FILE_PREFIX);
+    }
+
+    private Path keyPath() {
+        return Path.of(privateKeyLocation.substring(FILE_PREFIX.length()));
+    }
+
+    private record SigningKey(PrivateKey privateKey, long lastModified, long checkedAt) {
+    }
+}
@@ -1,13 +1,17 @@
 package isel.leic.service;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
 import isel.leic.exception.DuplicateResourceException;
 import isel.leic.exception.UserNotFoundException;
 import isel.leic.model.Group;
 import isel.leic.model.User;
+import isel.leic.model.UserSummary;
+import isel.leic.repository.BucketProvisioningRepository;
 import isel.leic.repository.GroupRepository;
 import isel.leic.repository.UserRepository;
-import isel.leic.utils.AuthorizationUtils;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -15,6 +19,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +36,48 @@ public class UserService {
     @Inject
     GroupRepository groupRepository;
 
+    @Inject
+    BucketProvisioningService bucketProvisioningService;
+
+    @Inject
+    BucketDeletionService bucketDeletionService;
+
+    @Inject
+    PasswordHasher passwordHasher;
+
+    @Inject
+    UsernameIndex usernameIndex;
+
+    @ConfigProperty(name = "user.bucket.suffix")
+    String bucketSuffix;
+
+    @ConfigProperty(name = "user.directory.default-page-size", defaultValue = "100")
+    int defaultPageSize;
+
+    @ConfigProperty(name = "user.directory.max-page-size", defaultValue = "1000")
+    int maxPageSize;
+
+    @ConfigProperty(name = "user.directory.search-max-results", defaultValue = "20")
+    int searchMaxResults;
+
+    @ConfigProperty(name = "user.directory.create-pattern-index", defaultValue = "true")
+    boolean createPatternIndex;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!createPatternIndex) {
+            return;
+        }
+        try {
+            userRepository.createUsernamePatternIndex();
+            LOGGER.info("Username prefix search index is in place");
+        } catch (Exception e) {
+            LOGGER.warn("Could not create username prefix search index: {}", e.getMessage());
+        }
+    }
+
+    @Inject
+    BucketProvisioningRepository bucketProvisioningRepository;
+
     public User findById(Long id) {
         LOGGER.info("Fetching user by id: {}", id);
         return userRepository.findById(id);
@@ -40,9 +87,22 @@ public class UserService {
         Optional<User> userOptional = userRepository.findByUsername(username);
         return userOptional.orElse(null);
     }
-    public Optional<List<User>> findByUsernamePrefix(String prefix) {
+    public List<UserSummary> findByUsernamePrefix(String prefix) {
         LOGGER.info("Searching for users with username prefix: {}", prefix);
-        return userRepository.findByUsernamePrefix(prefix);
+        if (usernameIndex.isReady()) {
+            return usernameIndex.findByPrefix(prefix, searchMaxResults);
+        }
+        return userRepository.findByUsernamePrefix(prefix, searchMaxResults);
+    }
+
+    public int pageSize(Integer limit) {
+        return limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+    }
+
+    public List<UserSummary> findPage(Long afterId, Integer limit) {
+        int pageSize = pageSize(limit);
+        LOGGER.info("Fetching users after id {} with limit {}", afterId, pageSize);
+        return userRepository.findPage(afterId, pageSize);
     }
     public boolean existsById(Long id) {
         LOGGER.info("Checking if user exists with id: {}", id);
@@ -67,7 +127,7 @@ public class UserService {
             throw new UserNotFoundException("User with ID " + userId + " not found");
         }
 
-        user.setPassword(AuthorizationUtils.encodePassword(password));
+        user.setPassword(passwordHasher.hash(password));
         userRepository.persist(user);
         LOGGER.info("Updated password for user with ID {} ", user.getId());
         return user;
@@ -76,11 +136,19 @@ public class UserService {
     @Transactional
     public User createUser(User user) {
         LOGGER.info("Persisting user: {}", user.getUsername());
-        user.setPassword(AuthorizationUtils.encodePassword(user.getPassword()));
         if (userRepository.findByUsername(user.getUsername()).isPresent()) {
             throw new DuplicateResourceException("User already exists");
         }
+        user.setPassword(passwordHasher.hash(user.getPassword()));
         userRepository.persist(user);
+        usernameIndex.add(user.getId(), user.getUsername());
+        return user;
+    }
+
+    @Transactional
+    public User createUserWithBucket(User user) {
+        createUser(user);
+        bucketProvisioningService.enqueue(user.getId());
         return user;
     }
 
@@ -94,7 +162,10 @@ public class UserService {
             throw new UserNotFoundException("User with ID " + userId + " not found");
         }
 
+        bucketProvisioningRepository.deleteById(userId);
+        bucketDeletionService.enqueue(userId + bucketSuffix);
         userRepository.deleteById(userId);
+        usernameIndex.remove(userId);
         LOGGER.info("User {} removed successfully", userId);
     }
 
@@ -104,8 +175,11 @@ public class UserService {
         Optional<User> userOptional = userRepository.findByUsername(username);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            if (AuthorizationUtils.verifyPassword(password,user.getPassword())) {
+            if (passwordHasher.verify(password, user.getPassword())) {
                 LOGGER.info("User {} authenticated successfully", username);
+                if (passwordHasher.needsRehash(user.getPassword())) {
+                    rehashPassword(user, password);
+                }
                 return user;
             } else {
                 LOGGER.info("User {} authentication failed: Incorrect password", username);
@@ -118,6 +192,17 @@ public class UserService {
     }
 
 
+    private void rehashPassword(User user, String password) {
+        try {
+            String hashedPassword = passwordHasher.hash(password);
+            QuarkusTransaction.requiringNew().run(() ->
+                    userRepository.update("password = ?1 where id = ?2", hashedPassword, user.getId()));
+            user.setPassword(hashedPassword);
+            LOGGER.info("Rehashed password for user with ID {}", user.getId());
+        } catch (Exception e) {
+            LOGGER.warn("Could not rehash password for user with ID {}: {}", user.getId(), e.getMessage());
+        }
+    }
 
     public List<Group> findUserGroups(Long userId) {
         LOGGER.info("Finding groups for user with id '{}'", userId);
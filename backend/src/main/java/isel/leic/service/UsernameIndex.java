@@ -0,0 +1,166 @@
+package isel.leic.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import isel.leic.model.UserSummary;
+import isel.leic.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@ApplicationScoped
+public class UsernameIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsernameIndex.class);
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "user.directory.index.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "user.directory.index.reconcile-interval", defaultValue = "PT5M")
+    Duration reconcileInterval;
+
+    private volatile Snapshot snapshot;
+    private volatile Snapshot rebuilding;
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor();
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        reconciler.execute(this::reconcile);
+        reconciler.scheduleWithFixedDelay(this::reconcile, reconcileInterval.toMillis(), reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public List<UserSummary> findByPrefix(String prefix, int limit) {
+        Snapshot current = snapshot;
+        List<UserSummary> users = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, Long> entry : current.byUsername.tailMap(prefix, true).entrySet()) {
+            if (users.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            users.add(new UserSummary(entry.getValue(), entry.getKey()));
+        }
+        return users;
+    }
+
+    public void add(Long id, String username) {
+        afterCommit(() -> apply(snapshot -> snapshot.put(id, username)));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> apply(snapshot -> snapshot.remove(id)));
+    }
+
+    private void apply(Consumer<Snapshot> change) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            change.accept(current);
+        }
+        Snapshot next = rebuilding;
+        if (next != null) {
+            change.accept(next);
+        }
+    }
+
+    public void reconcile() {
+        Snapshot fresh = new Snapshot();
+        rebuilding = fresh;
+        try {
+            Long afterId = 0L;
+            List<UserSummary> page;
+            do {
+                Long from = afterId;
+                page = QuarkusTransaction.requiringNew().call(() -> userRepository.findPage(from, LOAD_PAGE_SIZE));
+                for (UserSummary user : page) {
+                    fresh.put(user.id(), user.username());
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).id();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            snapshot = fresh;
+            LOGGER.info("Username index reconciled with {} users", fresh.byId.size());
+        } catch (Exception e) {
+            LOGGER.error("Error reconciling username index: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            action.run();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private static final class Snapshot {
+        final ConcurrentNavigableMap<String, Long> byUsername = new ConcurrentSkipListMap<>();
+        final Map<Long, String> byId = new ConcurrentHashMap<>();
+
+        void put(Long id, String username) {
+            String previous = byId.put(id, username);
+            if (previous != null && !previous.equals(username)) {
+                byUsername.remove(previous, id);
+            }
+            byUsername.put(username, id);
+        }
+
+        void remove(Long id) {
+            String username = byId.remove(id);
+            if (username != null) {
+                byUsername.remove(username, id);
+            }
+        }
+    }
+}
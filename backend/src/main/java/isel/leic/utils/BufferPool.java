@@ -0,0 +1,58 @@
+package isel.leic.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+@ApplicationScoped
+public class BufferPool {
+
+    @ConfigProperty(name = "minio.transfer.buffer-size", defaultValue = "65536")
+    int bufferSize;
+
+    @ConfigProperty(name = "minio.transfer.buffer-pool-size", defaultValue = "64")
+    int poolSize;
+
+    private BlockingQueue<byte[]> buffers;
+
+    @PostConstruct
+    void init() {
+        buffers = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    public long transfer(InputStream input, OutputStream output) throws IOException {
+        byte[] buffer = acquire();
+        long transferred = 0;
+        try {
+            int bytesRead;
+            while ((bytesRead = input.read(buffer)) != -1) {
+                output.write(buffer, 0, bytesRead);
+                transferred += bytesRead;
+            }
+            return transferred;
+        } finally {
+            release(buffer);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package isel.leic.utils;
+
+import io.netty.buffer.Unpooled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.buffer.Buffer;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+public final class ByteStreams {
+
+    private ByteStreams() {
+    }
+
+    /**
+     * Bridges an SDK response publisher to a {@link Multi}, keeping the subscriber's demand so the
+     * S3 connection is only read as fast as the HTTP client consumes.
+     */
+    public static Multi<Buffer> toMulti(Publisher<ByteBuffer> publisher) {
+        Flow.Publisher<ByteBuffer> flowPublisher = subscriber -> publisher.subscribe(new Subscriber<>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(ByteBuffer byteBuffer) {
+                subscriber.onNext(byteBuffer);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                subscriber.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+        return Multi.createFrom().publisher(flowPublisher)
+                .map(byteBuffer -> Buffer.buffer(Unpooled.wrappedBuffer(byteBuffer)));
+    }
+
+    /**
+     * Reads a blocking stream in chunks on the worker pool, closing it when the subscriber completes or cancels.
+     */
+    public static Multi<Buffer> toMulti(InputStream input, int chunkSize) {
+        return Multi.createBy().repeating()
+                .supplier(() -> readChunk(input, chunkSize))
+                .until(chunk -> chunk.length() == 0)
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .onTermination().invoke(() -> closeQuietly(input));
+    }
+
+    private static Buffer readChunk(InputStream input, int chunkSize) {
+        try {
+            byte[] chunk = input.readNBytes(chunkSize);
+            return Buffer.buffer(chunk);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(InputStream input) {
+        try {
+            input.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -1,51 +1,41 @@
 package isel.leic.utils;
 
-import io.smallrye.jwt.algorithm.SignatureAlgorithm;
-
-import io.smallrye.jwt.build.Jwt;
-import io.smallrye.jwt.build.JwtClaimsBuilder;
-import org.eclipse.microprofile.config.ConfigProvider;
-
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyFactory;
 import java.security.PrivateKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.Base64;
+import java.util.regex.Pattern;
 
 
 
 public class TokenUtils {
 
+    private static final Pattern PEM_BOUNDARY = Pattern.compile("-----(BEGIN|END) (.*)-----|\\s");
 
-    public static String generateToken(Long userId, String issuer, Long duration) throws Exception {
-        String privateLocation = ConfigProvider.getConfig().getValue("jwt.private-key-location", String.class);
-        PrivateKey privateKey = readPrivateKey(privateLocation);
-
-        JwtClaimsBuilder claimsBuilder = Jwt.claims();
-        long currentTimeInSecs = currentTimeInSecs();
-
-        claimsBuilder.issuer(issuer);
-        claimsBuilder.subject(String.valueOf(userId));
-        claimsBuilder.issuedAt(currentTimeInSecs);
-        claimsBuilder.expiresAt(currentTimeInSecs + duration);
-
-        return claimsBuilder.jws().algorithm(SignatureAlgorithm.RS256).sign(privateKey);
+    public static PrivateKey readPrivateKey(final String pemResName) throws Exception {
+        return readPrivateKey(pemResName, "RSA");
     }
 
-    public static PrivateKey readPrivateKey(final String pemResName) throws Exception {
+    public static PrivateKey readPrivateKey(final String pemResName, final String keyAlgorithm) throws Exception {
         try (InputStream contentIS = TokenUtils.class.getResourceAsStream(pemResName)) {
-            byte[] tmp = new byte[4096];
-            int length = contentIS.read(tmp);
-            return decodePrivateKey(new String(tmp, 0, length, StandardCharsets.UTF_8));
+            if (contentIS == null) {
+                throw new IllegalArgumentException("Private key resource not found: " + pemResName);
+            }
+            return decodePrivateKey(new String(contentIS.readAllBytes(), StandardCharsets.UTF_8), keyAlgorithm);
         }
     }
 
     public static PrivateKey decodePrivateKey(final String pemEncoded) throws Exception {
+        return decodePrivateKey(pemEncoded, "RSA");
+    }
+
+    public static PrivateKey decodePrivateKey(final String pemEncoded, final String keyAlgorithm) throws Exception {
         byte[] encodedBytes = toEncodedBytes(pemEncoded);
 
         PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(encodedBytes);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
+        KeyFactory kf = KeyFactory.getInstance(keyAlgorithm);
         return kf.generatePrivate(keySpec);
     }
 
@@ -55,11 +45,7 @@ public class TokenUtils {
     }
 
     public static String removeBeginEnd(String pem) {
-        pem = pem.replaceAll("-----BEGIN (.*)-----", "");
-        pem = pem.replaceAll("-----END (.*)----", "");
-        pem = pem.replaceAll("\r\n", "");
-        pem = pem.replaceAll("\n", "");
-        return pem.trim();
+        return PEM_BOUNDARY.matcher(pem).replaceAll("");
     }
 
     public static int currentTimeInSecs() {
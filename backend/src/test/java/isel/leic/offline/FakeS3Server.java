@@ -0,0 +1,502 @@
+package isel.leic.offline;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class FakeS3Server implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FakeS3Server.class);
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+    private static final String NAMESPACE = " xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"";
+    private static final int DEFAULT_MAX_KEYS = 1000;
+    private static final Pattern KEY_PATTERN = Pattern.compile("<Key>(.*?)</Key>", Pattern.DOTALL);
+    private static final Pattern PART_NUMBER_PATTERN = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    private final Vertx vertx = Vertx.vertx();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    public int start(int port) {
+        server = vertx.createHttpServer()
+                .requestHandler(this::handle)
+                .listen(port)
+                .toCompletionStage().toCompletableFuture().join();
+        LOGGER.info("Fake S3 listening on port {}", server.actualPort());
+        return server.actualPort();
+    }
+
+    @Override
+    public void close() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    private void handle(HttpServerRequest request) {
+        request.body()
+                .onSuccess(body -> {
+                    try {
+                        route(request, body);
+                    } catch (S3Error e) {
+                        error(request, e);
+                    } catch (Exception e) {
+                        LOGGER.error("Fake S3 failed on {} {}: {}", request.method(), request.path(), e.getMessage(), e);
+                        error(request, new S3Error(500, "InternalError", String.valueOf(e.getMessage())));
+                    }
+                })
+                .onFailure(e -> error(request, new S3Error(400, "IncompleteBody", e.getMessage())));
+    }
+
+    private void route(HttpServerRequest request, Buffer body) {
+        String[] segments = request.path().substring(1).split("/", 2);
+        String bucketName = decode(segments[0]);
+        String key = segments.length > 1 ? decode(segments[1]) : "";
+        MultiMap query = request.params();
+        HttpMethod method = request.method();
+
+        if (bucketName.isEmpty()) {
+            listBuckets(request);
+        } else if (key.isEmpty()) {
+            if (method == HttpMethod.PUT) {
+                createBucket(request, bucketName);
+            } else if (method == HttpMethod.DELETE) {
+                deleteBucket(request, bucketName);
+            } else if (method == HttpMethod.HEAD) {
+                bucket(bucketName);
+                request.response().end();
+            } else if (method == HttpMethod.POST && query.contains("delete")) {
+                deleteObjects(request, bucketName, body);
+            } else if (method == HttpMethod.GET) {
+                listObjects(request, bucketName, query);
+            } else {
+                throw new S3Error(405, "MethodNotAllowed", method + " is not supported on buckets");
+            }
+        } else if (method == HttpMethod.POST && query.contains("uploads")) {
+            createMultipartUpload(request, bucketName, key);
+        } else if (method == HttpMethod.POST && query.contains("uploadId")) {
+            completeMultipartUpload(request, bucketName, key, query.get("uploadId"), body);
+        } else if (method == HttpMethod.PUT && query.contains("uploadId")) {
+            uploadPart(request, bucketName, key, query.get("uploadId"), Integer.parseInt(query.get("partNumber")), body);
+        } else if (method == HttpMethod.PUT && request.getHeader("x-amz-copy-source") != null) {
+            copyObject(request, bucketName, key);
+        } else if (method == HttpMethod.PUT) {
+            putObject(request, bucketName, key, body);
+        } else if (method == HttpMethod.GET && query.contains("uploadId")) {
+            listParts(request, bucketName, key, query.get("uploadId"));
+        } else if (method == HttpMethod.GET || method == HttpMethod.HEAD) {
+            getObject(request, bucketName, key, method == HttpMethod.HEAD);
+        } else if (method == HttpMethod.DELETE && query.contains("uploadId")) {
+            uploads.remove(query.get("uploadId"));
+            request.response().setStatusCode(204).end();
+        } else if (method == HttpMethod.DELETE) {
+            bucket(bucketName).objects.remove(key);
+            request.response().setStatusCode(204).end();
+        } else {
+            throw new S3Error(405, "MethodNotAllowed", method + " is not supported on objects");
+        }
+    }
+
+    private void listBuckets(HttpServerRequest request) {
+        StringBuilder xml = new StringBuilder(XML_HEADER).append("<ListAllMyBucketsResult").append(NAMESPACE).append(">")
+                .append("<Owner><ID>fake</ID><DisplayName>fake</DisplayName></Owner><Buckets>");
+        new TreeMap<>(buckets).forEach((name, bucket) -> xml.append("<Bucket><Name>").append(escape(name))
+                .append("</Name><CreationDate>").append(bucket.createdAt).append("</CreationDate></Bucket>"));
+        xml.append("</Buckets></ListAllMyBucketsResult>");
+        xml(request, 200, xml);
+    }
+
+    private void createBucket(HttpServerRequest request, String bucketName) {
+        if (buckets.putIfAbsent(bucketName, new Bucket()) != null) {
+            throw new S3Error(409, "BucketAlreadyOwnedByYou", "Bucket already exists: " + bucketName);
+        }
+        request.response().putHeader("Location", "/" + bucketName).end();
+    }
+
+    private void deleteBucket(HttpServerRequest request, String bucketName) {
+        if (!bucket(bucketName).objects.isEmpty()) {
+            throw new S3Error(409, "BucketNotEmpty", "Bucket is not empty: " + bucketName);
+        }
+        buckets.remove(bucketName);
+        request.response().setStatusCode(204).end();
+    }
+
+    private void listObjects(HttpServerRequest request, String bucketName, MultiMap query) {
+        NavigableMap<String, StoredObject> objects = bucket(bucketName).objects;
+        String prefix = Objects.requireNonNullElse(query.get("prefix"), "");
+        String delimiter = query.get("delimiter");
+        String start = query.get("continuation-token") != null ? query.get("continuation-token") : query.get("start-after");
+        int maxKeys = query.get("max-keys") == null ? DEFAULT_MAX_KEYS : Integer.parseInt(query.get("max-keys"));
+        boolean urlEncoded = "url".equals(query.get("encoding-type"));
+
+        NavigableMap<String, StoredObject> candidates = start != null && start.compareTo(prefix) >= 0
+                ? objects.tailMap(start, false)
+                : objects.tailMap(prefix, true);
+        StringBuilder contents = new StringBuilder();
+        Set<String> commonPrefixes = new LinkedHashSet<>();
+        int count = 0;
+        String lastKey = null;
+        boolean truncated = false;
+        for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            int delimiterIndex = delimiter == null ? -1 : key.indexOf(delimiter, prefix.length());
+            String commonPrefix = delimiterIndex >= 0 ? key.substring(0, delimiterIndex + delimiter.length()) : null;
+            if (commonPrefix != null && commonPrefixes.contains(commonPrefix)) {
+                lastKey = key;
+                continue;
+            }
+            if (count >= maxKeys) {
+                truncated = true;
+                break;
+            }
+            if (commonPrefix != null) {
+                commonPrefixes.add(commonPrefix);
+            } else {
+                StoredObject object = entry.getValue();
+                contents.append("<Contents><Key>").append(xmlKey(key, urlEncoded)).append("</Key>")
+                        .append("<LastModified>").append(object.lastModified).append("</LastModified>")
+                        .append("<ETag>").append(escape(object.eTag)).append("</ETag>")
+                        .append("<Size>").append(object.data.length).append("</Size>")
+                        .append("<StorageClass>STANDARD</StorageClass></Contents>");
+            }
+            count++;
+            lastKey = key;
+        }
+
+        StringBuilder xml = new StringBuilder(XML_HEADER).append("<ListBucketResult").append(NAMESPACE).append(">")
+                .append("<Name>").append(escape(bucketName)).append("</Name>")
+                .append("<Prefix>").append(xmlKey(prefix, urlEncoded)).append("</Prefix>")
+                .append("<KeyCount>").append(count).append("</KeyCount>")
+                .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>")
+                .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (delimiter != null) {
+            xml.append("<Delimiter>").append(xmlKey(delimiter, urlEncoded)).append("</Delimiter>");
+        }
+        if (urlEncoded) {
+            xml.append("<EncodingType>url</EncodingType>");
+        }
+        if (truncated) {
+            xml.append("<NextContinuationToken>").append(escape(lastKey)).append("</NextContinuationToken>");
+        }
+        xml.append(contents);
+        commonPrefixes.forEach(commonPrefix -> xml.append("<CommonPrefixes><Prefix>").append(xmlKey(commonPrefix, urlEncoded)).append("</Prefix></CommonPrefixes>"));
+        xml.append("</ListBucketResult>");
+        xml(request, 200, xml);
+    }
+
+    private void deleteObjects(HttpServerRequest request, String bucketName, Buffer body) {
+        Bucket bucket = bucket(bucketName);
+        String payload = body.toString(StandardCharsets.UTF_8);
+        boolean quiet = payload.contains("<Quiet>true</Quiet>");
+        StringBuilder xml = new StringBuilder(XML_HEADER).append("<DeleteResult").append(NAMESPACE).append(">");
+        Matcher matcher = KEY_PATTERN.matcher(payload);
+        while (matcher.find()) {
+            String key = unescape(matcher.group(1));
+            bucket.objects.remove(key);
+            if (!quiet) {
+                xml.append("<Deleted><Key>").append(escape(key)).append("</Key></Deleted>");
+            }
+        }
+        xml.append("</DeleteResult>");
+        xml(request, 200, xml);
+    }
+
+    private void putObject(HttpServerRequest request, String bucketName, String key, Buffer body) {
+        byte[] data = payload(request, body);
+        StoredObject object = new StoredObject(data, eTag(data), contentType(request), Instant.now());
+        bucket(bucketName).objects.put(key, object);
+        request.response().putHeader("ETag", object.eTag).end();
+    }
+
+    private void copyObject(HttpServerRequest request, String bucketName, String key) {
+        StoredObject source = copySource(request);
+        StoredObject copy = new StoredObject(source.data, source.eTag, source.contentType, Instant.now());
+        bucket(bucketName).objects.put(key, copy);
+        xml(request, 200, new StringBuilder(XML_HEADER).append("<CopyObjectResult").append(NAMESPACE).append(">")
+                .append("<LastModified>").append(copy.lastModified).append("</LastModified>")
+                .append("<ETag>").append(escape(copy.eTag)).append("</ETag></CopyObjectResult>"));
+    }
+
+    private void createMultipartUpload(HttpServerRequest request, String bucketName, String key) {
+        bucket(bucketName);
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new MultipartUpload(bucketName, key, contentType(request)));
+        xml(request, 200, new StringBuilder(XML_HEADER).append("<InitiateMultipartUploadResult").append(NAMESPACE).append(">")
+                .append("<Bucket>").append(escape(bucketName)).append("</Bucket>")
+                .append("<Key>").append(escape(key)).append("</Key>")
+                .append("<UploadId>").append(uploadId).append("</UploadId></InitiateMultipartUploadResult>"));
+    }
+
+    private void uploadPart(HttpServerRequest request, String bucketName, String key, String uploadId, int partNumber, Buffer body) {
+        MultipartUpload upload = upload(uploadId);
+        if (request.getHeader("x-amz-copy-source") != null) {
+            byte[] data = copySource(request).data;
+            String range = request.getHeader("x-amz-copy-source-range");
+            if (range != null) {
+                long[] bounds = parseRange(range, data.length);
+                data = Arrays.copyOfRange(data, (int) bounds[0], (int) bounds[1] + 1);
+            }
+            StoredObject part = new StoredObject(data, eTag(data), null, Instant.now());
+            upload.parts.put(partNumber, part);
+            xml(request, 200, new StringBuilder(XML_HEADER).append("<CopyPartResult").append(NAMESPACE).append(">")
+                    .append("<LastModified>").append(part.lastModified).append("</LastModified>")
+                    .append("<ETag>").append(escape(part.eTag)).append("</ETag></CopyPartResult>"));
+            return;
+        }
+        byte[] data = payload(request, body);
+        StoredObject part = new StoredObject(data, eTag(data), null, Instant.now());
+        upload.parts.put(partNumber, part);
+        request.response().putHeader("ETag", part.eTag).end();
+    }
+
+    private void completeMultipartUpload(HttpServerRequest request, String bucketName, String key, String uploadId, Buffer body) {
+        MultipartUpload upload = upload(uploadId);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteArrayOutputStream digests = new ByteArrayOutputStream();
+        Matcher matcher = PART_NUMBER_PATTERN.matcher(body.toString(StandardCharsets.UTF_8));
+        int partCount = 0;
+        while (matcher.find()) {
+            StoredObject part = upload.parts.get(Integer.parseInt(matcher.group(1)));
+            if (part == null) {
+                throw new S3Error(400, "InvalidPart", "Part " + matcher.group(1) + " was not uploaded");
+            }
+            data.writeBytes(part.data);
+            digests.writeBytes(md5(part.data));
+            partCount++;
+        }
+        uploads.remove(uploadId);
+        String eTag = "\"" + HexFormat.of().formatHex(md5(digests.toByteArray())) + "-" + partCount + "\"";
+        bucket(bucketName).objects.put(key, new StoredObject(data.toByteArray(), eTag, upload.contentType, Instant.now()));
+        xml(request, 200, new StringBuilder(XML_HEADER).append("<CompleteMultipartUploadResult").append(NAMESPACE).append(">")
+                .append("<Location>/").append(escape(bucketName)).append("/").append(escape(key)).append("</Location>")
+                .append("<Bucket>").append(escape(bucketName)).append("</Bucket>")
+                .append("<Key>").append(escape(key)).append("</Key>")
+                .append("<ETag>").append(escape(eTag)).append("</ETag></CompleteMultipartUploadResult>"));
+    }
+
+    private void listParts(HttpServerRequest request, String bucketName, String key, String uploadId) {
+        MultipartUpload upload = upload(uploadId);
+        StringBuilder xml = new StringBuilder(XML_HEADER).append("<ListPartsResult").append(NAMESPACE).append(">")
+                .append("<Bucket>").append(escape(bucketName)).append("</Bucket>")
+                .append("<Key>").append(escape(key)).append("</Key>")
+                .append("<UploadId>").append(uploadId).append("</UploadId>")
+                .append("<IsTruncated>false</IsTruncated>");
+        upload.parts.forEach((partNumber, part) -> xml.append("<Part><PartNumber>").append(partNumber).append("</PartNumber>")
+                .append("<LastModified>").append(part.lastModified).append("</LastModified>")
+                .append("<ETag>").append(escape(part.eTag)).append("</ETag>")
+                .append("<Size>").append(part.data.length).append("</Size></Part>"));
+        xml.append("</ListPartsResult>");
+        xml(request, 200, xml);
+    }
+
+    private void getObject(HttpServerRequest request, String bucketName, String key, boolean headOnly) {
+        StoredObject object = bucket(bucketName).objects.get(key);
+        if (object == null) {
+            throw new S3Error(404, "NoSuchKey", "The specified key does not exist.");
+        }
+        String ifMatch = request.getHeader("If-Match");
+        if (ifMatch != null && !ifMatch.equals(object.eTag)) {
+            throw new S3Error(412, "PreconditionFailed", "At least one of the pre-conditions you specified did not hold");
+        }
+        HttpServerResponse response = request.response()
+                .putHeader("ETag", object.eTag)
+                .putHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(object.lastModified.atOffset(ZoneOffset.UTC)))
+                .putHeader("Accept-Ranges", "bytes")
+                .putHeader("Content-Type", object.contentType);
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(",")).map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(object.eTag))) {
+            response.setStatusCode(304).end();
+            return;
+        }
+
+        int offset = 0;
+        int length = object.data.length;
+        String range = request.getHeader("Range");
+        if (range != null) {
+            long[] bounds = parseRange(range, object.data.length);
+            offset = (int) bounds[0];
+            length = (int) (bounds[1] - bounds[0] + 1);
+            response.setStatusCode(206).putHeader("Content-Range", "bytes " + bounds[0] + "-" + bounds[1] + "/" + object.data.length);
+        }
+        response.putHeader("Content-Length", String.valueOf(length));
+        if (headOnly) {
+            response.end();
+        } else {
+            response.end(Buffer.buffer(Arrays.copyOfRange(object.data, offset, offset + length)));
+        }
+    }
+
+    private Bucket bucket(String bucketName) {
+        Bucket bucket = buckets.get(bucketName);
+        if (bucket == null) {
+            throw new S3Error(404, "NoSuchBucket", "The specified bucket does not exist: " + bucketName);
+        }
+        return bucket;
+    }
+
+    private MultipartUpload upload(String uploadId) {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            throw new S3Error(404, "NoSuchUpload", "The specified upload does not exist: " + uploadId);
+        }
+        return upload;
+    }
+
+    private StoredObject copySource(HttpServerRequest request) {
+        String source = decode(request.getHeader("x-amz-copy-source"));
+        if (source.startsWith("/")) {
+            source = source.substring(1);
+        }
+        int versionIndex = source.indexOf("?versionId=");
+        if (versionIndex >= 0) {
+            source = source.substring(0, versionIndex);
+        }
+        String[] parts = source.split("/", 2);
+        StoredObject object = bucket(parts[0]).objects.get(parts[1]);
+        if (object == null) {
+            throw new S3Error(404, "NoSuchKey", "The specified copy source does not exist.");
+        }
+        return object;
+    }
+
+    private static long[] parseRange(String header, long size) {
+        String[] bounds = header.substring(header.indexOf('=') + 1).split("-", 2);
+        long start;
+        long end;
+        if (bounds[0].isEmpty()) {
+            start = Math.max(0, size - Long.parseLong(bounds[1]));
+            end = size - 1;
+        } else {
+            start = Long.parseLong(bounds[0]);
+            end = bounds[1].isEmpty() ? size - 1 : Math.min(size - 1, Long.parseLong(bounds[1]));
+        }
+        if (start >= size || start > end) {
+            throw new S3Error(416, "InvalidRange", "The requested range is not satisfiable");
+        }
+        return new long[]{start, end};
+    }
+
+    private static byte[] payload(HttpServerRequest request, Buffer body) {
+        String contentSha = request.getHeader("x-amz-content-sha256");
+        String contentEncoding = request.getHeader("Content-Encoding");
+        if ((contentSha != null && contentSha.startsWith("STREAMING-")) || (contentEncoding != null && contentEncoding.contains("aws-chunked"))) {
+            return decodeAwsChunked(body.getBytes());
+        }
+        return body.getBytes();
+    }
+
+    private static byte[] decodeAwsChunked(byte[] encoded) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(encoded.length);
+        int position = 0;
+        while (position < encoded.length) {
+            int lineEnd = position;
+            while (lineEnd + 1 < encoded.length && !(encoded[lineEnd] == '\r' && encoded[lineEnd + 1] == '\n')) {
+                lineEnd++;
+            }
+            String header = new String(encoded, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            position = lineEnd + 2;
+            if (size == 0) {
+                break;
+            }
+            decoded.write(encoded, position, size);
+            position += size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static String contentType(HttpServerRequest request) {
+        return Objects.requireNonNullElse(request.getHeader("Content-Type"), "application/octet-stream");
+    }
+
+    private static void xml(HttpServerRequest request, int status, CharSequence xml) {
+        request.response().setStatusCode(status).putHeader("Content-Type", "application/xml").end(xml.toString());
+    }
+
+    private static void error(HttpServerRequest request, S3Error error) {
+        HttpServerResponse response = request.response().setStatusCode(error.status);
+        if (request.method() == HttpMethod.HEAD) {
+            response.end();
+            return;
+        }
+        xml(request, error.status, XML_HEADER + "<Error><Code>" + error.code + "</Code><Message>" + escape(error.getMessage())
+                + "</Message><Resource>" + escape(request.path()) + "</Resource><RequestId>fake</RequestId></Error>");
+    }
+
+    private static String eTag(byte[] data) {
+        return "\"" + HexFormat.of().formatHex(md5(data)) + "\"";
+    }
+
+    private static byte[] md5(byte[] data) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private static String xmlKey(String value, boolean urlEncoded) {
+        return urlEncoded ? URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20") : escape(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&quot;", "\"").replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+    }
+
+    private static final class Bucket {
+        final NavigableMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+        final Instant createdAt = Instant.now();
+    }
+
+    private record StoredObject(byte[] data, String eTag, String contentType, Instant lastModified) {
+    }
+
+    private record MultipartUpload(String bucketName, String key, String contentType, NavigableMap<Integer, StoredObject> parts) {
+        MultipartUpload(String bucketName, String key, String contentType) {
+            this(bucketName, key, contentType, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    private static final class S3Error extends RuntimeException {
+        final int status;
+        final String code;
+
+        S3Error(int status, String code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+}
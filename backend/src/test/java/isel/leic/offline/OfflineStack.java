@@ -0,0 +1,30 @@
+package isel.leic.offline;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Starts the offline stack on the fixed ports used by the {@code %offline} profile, for
+ * {@code mvn quarkus:dev -Dquarkus.profile=offline} or a local load test:
+ * <pre>mvn test-compile exec:java -Dexec.mainClass=isel.leic.offline.OfflineStack -Dexec.classpathScope=test</pre>
+ */
+public class OfflineStack {
+
+    public static void main(String[] args) throws Exception {
+        int postgresPort = Integer.getInteger("offline.postgres.port", 5433);
+        int s3Port = Integer.getInteger("offline.s3.port", 9000);
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().setPort(postgresPort).start();
+        FakeS3Server s3 = new FakeS3Server();
+        s3.start(s3Port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            s3.close();
+            try {
+                postgres.close();
+            } catch (Exception ignored) {
+            }
+        }));
+        System.out.printf("Postgres on localhost:%d (postgres/postgres), S3 on http://localhost:%d%n", postgresPort, s3Port);
+        new CountDownLatch(1).await();
+    }
+}
@@ -0,0 +1,61 @@
+package isel.leic.offline;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Replaces the cluster Postgres and MinIO with an embedded Postgres and {@link FakeS3Server} when the
+ * tests run with {@code -Poffline} (which sets {@code quarkus.test.profile=offline}).
+ * Both listen on random ports, so several builds can run side by side.
+ */
+@QuarkusTestResource(OfflineTestResources.class)
+public class OfflineTestResources implements QuarkusTestResourceLifecycleManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfflineTestResources.class);
+    static final String OFFLINE_PROFILE = "offline";
+
+    private EmbeddedPostgres postgres;
+    private FakeS3Server s3;
+
+    @Override
+    public Map<String, String> start() {
+        if (!OFFLINE_PROFILE.equals(System.getProperty("quarkus.test.profile"))) {
+            return Map.of();
+        }
+        try {
+            postgres = EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Postgres", e);
+        }
+        s3 = new FakeS3Server();
+        int s3Port = s3.start(0);
+        LOGGER.info("Offline test stack started: postgres on {}, s3 on {}", postgres.getPort(), s3Port);
+        return Map.of(
+                "quarkus.datasource.jdbc.url", postgres.getJdbcUrl("postgres", "postgres"),
+                "quarkus.datasource.username", "postgres",
+                "quarkus.datasource.password", "postgres",
+                "quarkus.s3.endpoint-override", "http://localhost:" + s3Port
+        );
+    }
+
+    @Override
+    public void stop() {
+        if (s3 != null) {
+            s3.close();
+        }
+        if (postgres != null) {
+            try {
+                postgres.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to stop embedded Postgres: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -151,7 +151,7 @@ public class AuthenticationResourceTest {
                 .header("Authorization", "Bearer " + token)
                 .when()
                 .delete("/user/" + user.getId());
-        response.then().statusCode(200);
+        response.then().statusCode(202);
     }
 
     @Test
@@ -180,4 +180,29 @@ public class AuthenticationResourceTest {
                 .then()
                 .statusCode(401);
     }
+
+    @Test
+    @Order(11)
+    public void testLoginEndpoint_RepeatedFailuresAreThrottled() {
+        String jsonBody = "{\"username\":\"brute-force-target\",\"password\":\"wrong-password\"}";
+
+        for (int i = 0; i < 5; i++) {
+            given()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonBody)
+                    .when()
+                    .post("/auth/login")
+                    .then()
+                    .statusCode(404);
+        }
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonBody)
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(429)
+                .header("Retry-After", notNullValue());
+    }
 }
@@ -98,6 +98,15 @@ public class MinioResourceTest {
     @Test
     @Order(4)
     public void testGetPresignedUploadUrl() {
+        // Warm the listing cache before the upload that bypasses the backend
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId1 + "/object")
+                .then()
+                .statusCode(200)
+                .body("objectKey", not(hasItem("filename.txt")));
+
         MinioResource.UploadRequest uploadRequest = new MinioResource.UploadRequest("filename.txt", "text/plain");
 
         Response response = given()
@@ -125,12 +134,173 @@ public class MinioResourceTest {
                 .put(presignedUrl)
                 .then()
                 .statusCode(200); // Assuming HTTP 200 indicates a successful upload
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId1 + "/object")
+                .then()
+                .statusCode(200)
+                .body("objectKey", hasItem("filename.txt"));
     }
 
 
 
+    @Test
+    @Order(5)
+    public void testDownloadFileStream_RangeAndConditional() {
+        String objectKey = "test-file.txt";
+
+        Response response = given()
+                .header("Authorization", "Bearer " + token)
+                .header("Range", "bytes=0-99")
+                .when()
+                .get("/user/" + userId1 + "/object/download/stream?objectKey=" + objectKey);
+
+        response.then()
+                .statusCode(206)
+                .header("Content-Range", "bytes 0-99/14694");
+        assertEquals(100, response.asByteArray().length, "Partial content size doesn't match requested range");
+
+        String eTag = response.getHeader("ETag");
+        assertNotNull(eTag);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", eTag)
+                .when()
+                .get("/user/" + userId1 + "/object/download/stream?objectKey=" + objectKey)
+                .then()
+                .statusCode(304);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", "\"stale\", " + eTag)
+                .when()
+                .get("/user/" + userId1 + "/object/download/stream?objectKey=" + objectKey)
+                .then()
+                .statusCode(304)
+                .header("ETag", eTag);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .header("Range", "bytes=0-9,100-109")
+                .when()
+                .get("/user/" + userId1 + "/object/download/stream?objectKey=" + objectKey)
+                .then()
+                .statusCode(206)
+                .contentType(startsWith("multipart/byteranges"));
+    }
+
+    @Test
+    @Order(2)
+    public void testDownloadFileAsync() {
+        String objectKey = "test-file.txt";
+
+        Response response = given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId1 + "/object/download/async?objectKey=" + objectKey);
+        response.then().statusCode(200);
+        assertEquals(14694, response.asByteArray().length, "Downloaded file size doesn't match expected size");
+
+        String eTag = response.getHeader("ETag");
+        assertNotNull(eTag);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .header("Range", "bytes=0-99")
+                .when()
+                .get("/user/" + userId1 + "/object/download/async?objectKey=" + objectKey)
+                .then()
+                .statusCode(206)
+                .header("Content-Range", "bytes 0-99/14694");
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .header("Range", "bytes=0-99")
+                .header("If-Range", eTag)
+                .when()
+                .get("/user/" + userId1 + "/object/download/async?objectKey=" + objectKey)
+                .then()
+                .statusCode(206)
+                .header("Content-Range", "bytes 0-99/14694");
+
+        Response stale = given()
+                .header("Authorization", "Bearer " + token)
+                .header("Range", "bytes=0-99")
+                .header("If-Range", "\"stale\"")
+                .when()
+                .get("/user/" + userId1 + "/object/download/async?objectKey=" + objectKey);
+        stale.then().statusCode(200);
+        assertEquals(14694, stale.asByteArray().length, "Stale If-Range did not send the full object");
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId1 + "/object/download/async?objectKey=missing.txt")
+                .then()
+                .statusCode(404);
+    }
+
     @Test
     @Order(6)
+    public void testPresignedMultipartUpload() throws IOException {
+        String filename = "multipart-file.txt";
+
+        String uploadId = given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("filename", filename)
+                .when()
+                .post("/user/" + userId1 + "/object/multipart/start")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getString("uploadId");
+
+        MinioResource.PresignPartsRequest presignRequest = new MinioResource.PresignPartsRequest(uploadId, filename, 1, 1);
+        String partUrl = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(presignRequest)
+                .when()
+                .post("/user/" + userId1 + "/object/multipart/presign")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .extract().jsonPath().getString("[0].presignedUrl");
+
+        String eTag = given()
+                .urlEncodingEnabled(false)
+                .body(Files.readAllBytes(Paths.get("src/main/resources/test-file2.txt")))
+                .when()
+                .put(partUrl)
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertNotNull(eTag);
+
+        MinioResource.CompleteMultipartUploadRequest completeRequest = new MinioResource.CompleteMultipartUploadRequest(
+                uploadId, filename, java.util.List.of(new MinioResource.PartUploadResponse(1, eTag)));
+        given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(completeRequest)
+                .when()
+                .post("/user/" + userId1 + "/object/multipart/complete")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("objectKey", filename)
+                .when()
+                .delete("/user/" + userId1 + "/object")
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(7)
     public void testRenameFile() {
         String objectKey = "test-file.txt";
         String newName = "new-test-file.txt";
@@ -154,7 +324,7 @@ public class MinioResourceTest {
     }
 
     @Test
-    @Order(7)
+    @Order(8)
     public void testShareFileBetweenUsers() {
 
 
@@ -184,19 +354,48 @@ public class MinioResourceTest {
                 .then()
                 .statusCode(200);
 
-        // Assuming the file is successfully accessed by the second user
+        // The recipient can download the shared file from every download endpoint
+        for (String endpoint : new String[]{"download", "download/stream", "download/async"}) {
+            given()
+                    .header("Authorization", "Bearer " + token2)
+                    .queryParam("objectKey", "new-test-file.txt")
+                    .when()
+                    .get("/user/" + userId1 + "/object/" + endpoint)
+                    .then()
+                    .statusCode(200);
+
+            given()
+                    .header("Authorization", "Bearer " + token2)
+                    .queryParam("objectKey", "not-shared.txt")
+                    .when()
+                    .get("/user/" + userId1 + "/object/" + endpoint)
+                    .then()
+                    .statusCode(403);
+        }
+
         given()
                 .header("Authorization", "Bearer " + token2)
-                .queryParam("objectKey", "new-test-file.txt")
+                .contentType(ContentType.JSON)
+                .body(new MinioResource.DownloadRequest("new-test-file.txt"))
                 .when()
-                .get("/user/" + userId1 + "/object/download")
+                .post("/user/" + userId1 + "/object/presign/download")
                 .then()
-                .statusCode(200);
+                .statusCode(200)
+                .body("presignedUrl", notNullValue());
+
+        given()
+                .header("Authorization", "Bearer " + token2)
+                .contentType(ContentType.JSON)
+                .body(new MinioResource.DownloadRequest("not-shared.txt"))
+                .when()
+                .post("/user/" + userId1 + "/object/presign/download")
+                .then()
+                .statusCode(403);
     }
 
     @Test
-    @Order(8)
-    public void testDeleteObjectAndUser() {
+    @Order(9)
+    public void testDeleteObjectAndUser() throws InterruptedException {
         String objectKey = "new-test-file.txt";
 
         given()
@@ -220,14 +419,30 @@ public class MinioResourceTest {
                 .when()
                 .delete("/user/" + userId1)
                 .then()
-                .statusCode(200);
+                .statusCode(202)
+                .body("bucketName", equalTo(userId1 + "-bucket"));
 
         given()
                 .header("Authorization", "Bearer " + token2)
                 .when()
                 .delete("/user/" + userId2)
                 .then()
-                .statusCode(200);
+                .statusCode(202);
+
+        String status = null;
+        for (int attempt = 0; attempt < 50 && !"COMPLETED".equals(status); attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(100);
+            }
+            status = given()
+                    .header("Authorization", "Bearer " + token)
+                    .when()
+                    .get("/user/" + userId1 + "/deletion")
+                    .then()
+                    .statusCode(200)
+                    .extract().path("status");
+        }
+        assertEquals("COMPLETED", status, "Bucket deletion did not complete");
     }
 
 }
\ No newline at end of file
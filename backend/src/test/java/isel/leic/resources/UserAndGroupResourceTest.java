@@ -6,15 +6,23 @@ import io.restassured.response.Response;
 import isel.leic.model.Group;
 import isel.leic.model.User;
 import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.junit.jupiter.api.*;
 import java.util.List;
 import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 
 @QuarkusTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class UserAndGroupResourceTest {
 
+    @ConfigProperty(name = "user.directory.default-page-size")
+    int defaultPageSize;
+
     private static String token;
     private static String token2;
     private static Long userId1;
@@ -204,16 +212,57 @@ public class UserAndGroupResourceTest {
 
     }
 
-
     @Test
     @Order(10)
+    public void testGetUsersPaginated() {
+        Response firstPage = given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("limit", 1)
+                .when()
+                .get("/user");
+
+        firstPage.then().statusCode(200);
+        List<Long> firstIds = firstPage.jsonPath().getList("id", Long.class);
+        assertEquals(1, firstIds.size());
+
+        Response secondPage = given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("after", firstIds.get(0))
+                .queryParam("limit", 1)
+                .when()
+                .get("/user");
+
+        secondPage.then().statusCode(200);
+        List<Long> secondIds = secondPage.jsonPath().getList("id", Long.class);
+        assertEquals(1, secondIds.size());
+        assertTrue(secondIds.get(0) > firstIds.get(0));
+
+        // Without paging parameters the endpoint returns the first page with the default limit
+        Response unpaged = given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user");
+
+        unpaged.then().statusCode(200).body(not(containsString("password")));
+        List<Long> unpagedIds = unpaged.jsonPath().getList("id", Long.class);
+        assertEquals(firstIds.get(0), unpagedIds.get(0));
+        assertTrue(unpagedIds.size() <= defaultPageSize);
+        if (unpagedIds.size() == defaultPageSize) {
+            unpaged.then().header("Link", containsString("after=" + unpagedIds.get(defaultPageSize - 1)));
+        } else {
+            unpaged.then().header("Link", nullValue());
+        }
+    }
+
+    @Test
+    @Order(11)
     public void testDeleteUserEndpoint() {
         Response temp = given()
                 .header("Authorization", "Bearer " + token)
                 .when()
                 .delete("/user/" + userId1);
 
-        temp.then().statusCode(200);
+        temp.then().statusCode(202);
 
         Response response = given()
                 .header("Authorization", "Bearer " + token2)
@@ -221,7 +270,7 @@ public class UserAndGroupResourceTest {
                 .delete("/user/" + userId2);
 
 
-        response.then().statusCode(200);
+        response.then().statusCode(202);
 
     }
 
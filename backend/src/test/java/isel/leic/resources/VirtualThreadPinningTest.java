@@ -0,0 +1,136 @@
+package isel.leic.resources;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit5.virtual.ShouldNotPin;
+import io.quarkus.test.junit5.virtual.VirtualThreadUnit;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Drives the @RunOnVirtualThread endpoints end to end (JDBC, S3, JWT, listing cache) and fails
+ * if any request pins its carrier thread.
+ */
+@QuarkusTest
+@VirtualThreadUnit
+@ShouldNotPin
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class VirtualThreadPinningTest {
+
+    private static String token;
+    private static Long userId;
+    private static Long recipientId;
+    private static Long groupId;
+
+    @Test
+    @Order(1)
+    public void testStorageEndpointsDoNotPin() {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body("{\"username\":\"vtUser\",\"password\":\"vtPassword\"}")
+                .when()
+                .post("/auth/signup");
+
+        token = response.jsonPath().getString("token");
+        userId = response.jsonPath().getLong("user.id");
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .queryParam("folderName", "docs")
+                .when()
+                .post("/user/" + userId + "/object/folder")
+                .then()
+                .statusCode(201);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .multiPart("file", new File("src/main/resources/test-file.txt"), "text/plain")
+                .formParam("filename", "vt-file.txt")
+                .formParam("mimetype", "text/plain")
+                .when()
+                .post("/user/" + userId + "/object")
+                .then()
+                .statusCode(201);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId + "/object")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId + "/object/page?limit=10")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId + "/object/download/stream?objectKey=vt-file.txt")
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(2)
+    public void testUserGroupAndSharingEndpointsDoNotPin() {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body("{\"username\":\"vtRecipient\",\"password\":\"vtPassword\"}")
+                .when()
+                .post("/auth/signup");
+
+        recipientId = response.jsonPath().getLong("user.id");
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId)
+                .then()
+                .statusCode(200);
+
+        groupId = given()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + token)
+                .body("{\"name\":\"VT Group\"}")
+                .when()
+                .post("/user/" + userId + "/group")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getLong("id");
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + token)
+                .body("{\"userId\":" + recipientId + "}")
+                .when()
+                .post("/user/" + userId + "/group/" + groupId)
+                .then()
+                .statusCode(200);
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + token)
+                .body("{\"recipientType\":\"GROUP\",\"recipientId\":" + groupId + ",\"filename\":\"vt-file.txt\"}")
+                .when()
+                .post("/user/" + userId + "/fileshare")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/user/" + userId + "/fileshare")
+                .then()
+                .statusCode(200);
+    }
+}
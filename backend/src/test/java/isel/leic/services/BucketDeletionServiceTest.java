@@ -0,0 +1,85 @@
+package isel.leic.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import isel.leic.model.BucketDeletion;
+import isel.leic.model.storage.BucketDeletionJob;
+import isel.leic.model.storage.FormData;
+import isel.leic.repository.BucketDeletionRepository;
+import isel.leic.service.BucketDeletionService;
+import isel.leic.service.MinioService;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import software.amazon.awssdk.services.s3.model.Bucket;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class BucketDeletionServiceTest {
+
+    @Inject
+    BucketDeletionService bucketDeletionService;
+
+    @Inject
+    BucketDeletionRepository bucketDeletionRepository;
+
+    @Inject
+    MinioService minioService;
+
+    @Test
+    @Order(1)
+    public void testUnfinishedDeletionIsResumed() throws InterruptedException {
+        String bucketName = "resumed-deletion-bucket";
+        minioService.createBucket(bucketName);
+        upload(bucketName, "a.txt");
+        upload(bucketName, "folder/b.txt");
+
+        // A deletion recorded by an instance that stopped before running it
+        QuarkusTransaction.requiringNew().run(() -> bucketDeletionService.enqueue(bucketName));
+        assertTrue(bucketDeletionService.resumeUnfinished() >= 1, "Unfinished deletion was not resumed");
+
+        BucketDeletionJob job = awaitFinished(bucketName);
+        assertEquals(BucketDeletionJob.Status.COMPLETED, job.getStatus(), "Resumed deletion failed: " + job.getError());
+        assertEquals(2, job.getDeletedObjects());
+        assertTrue(minioService.listBuckets().stream().map(Bucket::name).noneMatch(bucketName::equals), "Bucket was not deleted");
+
+        BucketDeletion deletion = QuarkusTransaction.requiringNew().call(() -> bucketDeletionRepository.findById(bucketName));
+        assertEquals(BucketDeletionJob.Status.COMPLETED, deletion.getStatus(), "Finished deletion was not persisted");
+    }
+
+    @Test
+    @Order(2)
+    public void testDeletionOfMissingBucketCompletes() throws InterruptedException {
+        String bucketName = "already-deleted-bucket";
+
+        QuarkusTransaction.requiringNew().run(() -> bucketDeletionService.enqueue(bucketName));
+        bucketDeletionService.submit(bucketName);
+
+        BucketDeletionJob job = awaitFinished(bucketName);
+        assertEquals(BucketDeletionJob.Status.COMPLETED, job.getStatus(), "Deleting a bucket that is already gone failed: " + job.getError());
+        assertTrue(QuarkusTransaction.requiringNew().call(() -> bucketDeletionRepository.findUnfinishedBucketNames()).stream()
+                .noneMatch(bucketName::equals), "Finished deletion is still resumable");
+    }
+
+    private BucketDeletionJob awaitFinished(String bucketName) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            BucketDeletionJob job = bucketDeletionService.findJob(bucketName).orElseThrow();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Deletion of " + bucketName + " did not finish");
+    }
+
+    private void upload(String bucketName, String objectKey) {
+        FormData formData = new FormData();
+        formData.data = new File("src/main/resources/test-file.txt");
+        formData.filename = objectKey;
+        formData.mimetype = "text/plain";
+        minioService.uploadObject(bucketName, formData);
+    }
+}
@@ -0,0 +1,120 @@
+package isel.leic.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import isel.leic.model.BucketProvisioning;
+import isel.leic.repository.BucketProvisioningRepository;
+import isel.leic.service.BucketProvisioningService;
+import isel.leic.service.MinioService;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.Bucket;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class BucketProvisioningServiceTest {
+
+    // Outbox rows without users, far above the ids the other tests get
+    private static final long PROVISIONED_USER_ID = 910001L;
+    private static final long FAILING_USER_ID = 910002L;
+    private static final long REMOVED_USER_ID = 910003L;
+    private static final long LONG_ERROR_USER_ID = 910004L;
+
+    @Inject
+    BucketProvisioningService bucketProvisioningService;
+
+    @Inject
+    BucketProvisioningRepository bucketProvisioningRepository;
+
+    @InjectSpy
+    MinioService minioService;
+
+    @Test
+    @Order(1)
+    public void testBucketIsProvisioned() throws ExecutionException, InterruptedException, TimeoutException {
+        bucketProvisioningService.enqueue(PROVISIONED_USER_ID);
+
+        assertTrue(bucketProvisioningService.provisionAsync(PROVISIONED_USER_ID).get(10, TimeUnit.SECONDS));
+
+        assertEquals(BucketProvisioning.Status.DONE, provisioning(PROVISIONED_USER_ID).getStatus());
+        assertTrue(minioService.listBuckets().stream().map(Bucket::name).anyMatch((PROVISIONED_USER_ID + "-bucket")::equals),
+                "Bucket was not created");
+        // Provisioning twice is a no-op
+        assertTrue(bucketProvisioningService.provisionAsync(PROVISIONED_USER_ID).get(10, TimeUnit.SECONDS));
+        verify(minioService, times(1)).createBucket(PROVISIONED_USER_ID + "-bucket");
+    }
+
+    @Test
+    @Order(2)
+    public void testFailedProvisioningIsRetriedLater() throws ExecutionException, InterruptedException, TimeoutException {
+        String bucketName = FAILING_USER_ID + "-bucket";
+        doThrow(SdkClientException.create("Connection refused")).when(minioService).createBucket(bucketName);
+        bucketProvisioningService.enqueue(FAILING_USER_ID);
+
+        assertFalse(bucketProvisioningService.provisionAsync(FAILING_USER_ID).get(10, TimeUnit.SECONDS));
+
+        BucketProvisioning provisioning = provisioning(FAILING_USER_ID);
+        assertEquals(BucketProvisioning.Status.PENDING, provisioning.getStatus());
+        assertEquals(1, provisioning.getAttempts());
+        assertEquals("Connection refused", provisioning.getLastError());
+        assertTrue(provisioning.getNextAttemptAt().isAfter(Instant.now()), "Retry was not pushed back");
+    }
+
+    @Test
+    @Order(3)
+    public void testUserRemovedWhileProvisioning() throws ExecutionException, InterruptedException, TimeoutException {
+        String bucketName = REMOVED_USER_ID + "-bucket";
+        doAnswer(invocation -> {
+            QuarkusTransaction.requiringNew().run(() -> bucketProvisioningRepository.deleteById(REMOVED_USER_ID));
+            return invocation.callRealMethod();
+        }).when(minioService).createBucket(bucketName);
+        bucketProvisioningService.enqueue(REMOVED_USER_ID);
+
+        assertFalse(bucketProvisioningService.provisionAsync(REMOVED_USER_ID).get(10, TimeUnit.SECONDS));
+
+        verify(minioService).scheduleBucketDeletion(bucketName);
+        assertNull(provisioning(REMOVED_USER_ID));
+    }
+
+    @Test
+    @Order(4)
+    public void testProvisioningOfRemovedUserIsSkipped() throws ExecutionException, InterruptedException, TimeoutException {
+        QuarkusTransaction.requiringNew().run(() -> bucketProvisioningRepository.deleteById(FAILING_USER_ID));
+
+        assertFalse(bucketProvisioningService.provisionAsync(FAILING_USER_ID).get(10, TimeUnit.SECONDS));
+        verify(minioService, never()).createBucket(FAILING_USER_ID + "-bucket");
+
+        QuarkusTransaction.requiringNew().run(() -> bucketProvisioningRepository.deleteById(PROVISIONED_USER_ID));
+        minioService.deleteBucket(PROVISIONED_USER_ID + "-bucket");
+    }
+
+    @Test
+    @Order(5)
+    public void testLongErrorIsTruncated() throws ExecutionException, InterruptedException, TimeoutException {
+        String bucketName = LONG_ERROR_USER_ID + "-bucket";
+        doThrow(SdkClientException.create("Service unavailable ".repeat(40))).when(minioService).createBucket(bucketName);
+        bucketProvisioningService.enqueue(LONG_ERROR_USER_ID);
+
+        assertFalse(bucketProvisioningService.provisionAsync(LONG_ERROR_USER_ID).get(10, TimeUnit.SECONDS));
+
+        BucketProvisioning provisioning = provisioning(LONG_ERROR_USER_ID);
+        assertEquals(1, provisioning.getAttempts(), "Failure was not recorded");
+        assertEquals(255, provisioning.getLastError().length());
+
+        QuarkusTransaction.requiringNew().run(() -> bucketProvisioningRepository.deleteById(LONG_ERROR_USER_ID));
+    }
+
+    private BucketProvisioning provisioning(long userId) {
+        return QuarkusTransaction.requiringNew().call(() -> bucketProvisioningRepository.findById(userId));
+    }
+}
@@ -0,0 +1,109 @@
+package isel.leic.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import isel.leic.model.FileSharing;
+import isel.leic.model.User;
+import isel.leic.repository.FileSharingRepository;
+import isel.leic.service.FileSharingService;
+import isel.leic.service.GroupService;
+import isel.leic.service.UserService;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class FileSharingGroupShareTest {
+
+    @Inject
+    FileSharingService fileSharingService;
+
+    @Inject
+    FileSharingRepository fileSharingRepository;
+
+    @Inject
+    UserService userService;
+
+    @Inject
+    GroupService groupService;
+
+    private static Long ownerId;
+    private static Long member1Id;
+    private static Long member2Id;
+    private static Long member3Id;
+    private static Long groupId;
+
+    @Test
+    @Order(1)
+    public void testOnlyNewMembersAreShared() {
+        ownerId = userService.createUser(new User("group-share-owner", "password1")).getId();
+        member1Id = userService.createUser(new User("group-share-m1", "password1")).getId();
+        member2Id = userService.createUser(new User("group-share-m2", "password1")).getId();
+        member3Id = userService.createUser(new User("group-share-m3", "password1")).getId();
+        groupService.createGroup(ownerId, "GroupShare");
+        groupId = groupService.findByCreatorIdAndName(ownerId, "GroupShare").get().getId();
+        groupService.addUserToGroup(ownerId, groupId);
+        for (Long memberId : List.of(member1Id, member2Id, member3Id)) {
+            groupService.addUserToGroup(memberId, groupId);
+        }
+
+        // Already shared one way with member 1 and the other way with member 2
+        fileSharingService.shareFileToUser(ownerId, member1Id, "doc.txt");
+        fileSharingService.shareFileToUser(member2Id, ownerId, "doc.txt");
+
+        List<FileSharing> shared = fileSharingService.shareFileToGroup(ownerId, groupId, "doc.txt");
+
+        assertEquals(List.of(member3Id), shared.stream().map(FileSharing::getSharedToUserId).toList(),
+                "Group share did not skip the sharer and existing shares in both directions");
+        assertEquals(ownerId, shared.get(0).getSharedByUserId());
+        assertEquals(3, countShares("doc.txt"));
+
+        assertTrue(fileSharingService.shareFileToGroup(ownerId, groupId, "doc.txt").isEmpty(), "Sharing again inserted rows");
+        assertEquals(3, countShares("doc.txt"));
+    }
+
+    @Test
+    @Order(2)
+    public void testConcurrentGroupSharesDoNotDuplicate() throws InterruptedException, ExecutionException {
+        int sharers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(sharers);
+        List<Future<List<FileSharing>>> shares = new ArrayList<>();
+        try {
+            for (int i = 0; i < sharers; i++) {
+                shares.add(executor.submit(() -> {
+                    start.await();
+                    return fileSharingService.shareFileToGroup(ownerId, groupId, "race.txt");
+                }));
+            }
+            start.countDown();
+            int inserted = 0;
+            for (Future<List<FileSharing>> share : shares) {
+                inserted += share.get().size();
+            }
+            assertEquals(3, inserted, "Concurrent group shares returned more rows than members");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3, countShares("race.txt"));
+    }
+
+    @Test
+    @Order(3)
+    public void testRemoveUsers() {
+        groupService.removeGroup(groupId);
+        for (Long userId : List.of(ownerId, member1Id, member2Id, member3Id)) {
+            userService.removeUser(userId);
+        }
+    }
+
+    private long countShares(String filename) {
+        return QuarkusTransaction.requiringNew().call(() -> fileSharingRepository.count("filename", filename));
+    }
+}
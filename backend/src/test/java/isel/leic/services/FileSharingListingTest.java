@@ -0,0 +1,111 @@
+package isel.leic.services;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import isel.leic.model.FileSharingResponse;
+import isel.leic.model.User;
+import isel.leic.model.storage.FormData;
+import isel.leic.service.FileSharingService;
+import isel.leic.service.MinioService;
+import isel.leic.service.UserService;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class FileSharingListingTest {
+
+    @Inject
+    FileSharingService fileSharingService;
+
+    @Inject
+    UserService userService;
+
+    @InjectSpy
+    MinioService minioService;
+
+    private static Long ownerId;
+    private static Long readerId;
+
+    @Test
+    @Order(1)
+    public void testUnrelatedSharesAreListedPerTopLevelFolder() {
+        User owner = new User("listing-owner", "password1");
+        User reader = new User("listing-reader", "password2");
+        userService.createUser(owner);
+        userService.createUser(reader);
+        ownerId = owner.getId();
+        readerId = reader.getId();
+
+        String bucketName = ownerId + "-bucket";
+        minioService.createBucket(bucketName);
+        for (String objectKey : List.of("a.txt", "z/b.txt", "z/c.txt", "unshared.txt")) {
+            upload(bucketName, objectKey);
+        }
+        fileSharingService.shareFileToUser(ownerId, readerId, "a.txt");
+        fileSharingService.shareFileToUser(ownerId, readerId, "z/b.txt");
+
+        List<FileSharingResponse> shared = fileSharingService.getFilesSharedToUser(readerId);
+
+        assertEquals(List.of("a.txt", "z/b.txt"), shared.stream().map(response -> response.getFileObject().getObjectKey()).sorted().toList());
+        verify(minioService).listObjects(bucketName, "a.txt", null);
+        verify(minioService).listObjects(bucketName, "z/b.txt", null);
+        verify(minioService, never()).listObjects(bucketName, "", null);
+    }
+
+    @Test
+    @Order(2)
+    public void testRootSharesAreListedTogether() {
+        String bucketName = ownerId + "-bucket";
+        List<String> rootFiles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String objectKey = "root-" + i + ".txt";
+            upload(bucketName, objectKey);
+            fileSharingService.shareFileToUser(ownerId, readerId, objectKey);
+            rootFiles.add(objectKey);
+        }
+
+        List<FileSharingResponse> shared = fileSharingService.getFilesSharedToUser(readerId);
+
+        List<String> expected = new ArrayList<>(rootFiles);
+        expected.addAll(List.of("a.txt", "z/b.txt"));
+        assertEquals(expected.stream().sorted().toList(), shared.stream().map(response -> response.getFileObject().getObjectKey()).sorted().toList());
+        // One listing for the 21 root files and one for the z/ folder
+        verify(minioService, times(2)).listObjects(eq(bucketName), anyString(), any());
+        verify(minioService).listObjects(bucketName, "", "/");
+        verify(minioService).listObjects(bucketName, "z/b.txt", null);
+    }
+
+    @Test
+    @Order(3)
+    public void testListingErrorIsNotWrapped() {
+        doThrow(NoSuchBucketException.builder().message("The specified bucket does not exist").build())
+                .when(minioService).listObjects(eq(ownerId + "-bucket"), anyString(), isNull());
+
+        assertThrows(NoSuchBucketException.class, () -> fileSharingService.getFilesSharedToUser(readerId));
+    }
+
+    @Test
+    @Order(4)
+    public void testRemoveUsers() {
+        userService.removeUser(ownerId);
+        userService.removeUser(readerId);
+    }
+
+    private void upload(String bucketName, String objectKey) {
+        FormData formData = new FormData();
+        formData.data = new File("src/main/resources/test-file.txt");
+        formData.filename = objectKey;
+        formData.mimetype = "text/plain";
+        minioService.uploadObject(bucketName, formData);
+    }
+}
@@ -7,6 +7,7 @@ import isel.leic.model.User;
 import isel.leic.model.storage.FileObject;
 import isel.leic.model.storage.FormData;
 import isel.leic.model.FileSharingResponse;
+import isel.leic.repository.FileSharingRepository;
 import isel.leic.service.FileSharingService;
 import isel.leic.service.GroupService;
 import isel.leic.service.MinioService;
@@ -33,6 +34,8 @@ public class FileSharingServiceTest {
     GroupService groupService;
     @Inject
     MinioService minioService;
+    @Inject
+    FileSharingRepository fileSharingRepository;
 
     private static Long fileShareIdToUser;
     private static Long user1Id;
@@ -152,4 +155,16 @@ public class FileSharingServiceTest {
         userService.removeUser(user2Id);
         userService.removeUser(user3Id);
     }
+
+    @Test
+    @Order(7)
+    public void testAuthorizationIndexIsCreated() {
+        // Already run at startup; running it again must be a no-op
+        fileSharingRepository.createAuthorizationIndex();
+
+        Number indexes = (Number) fileSharingRepository.getEntityManager()
+                .createNativeQuery("select count(*) from pg_indexes where tablename = 'file_sharing' and indexname = 'idx_file_sharing_authorization'")
+                .getSingleResult();
+        assertEquals(1, indexes.intValue());
+    }
 }
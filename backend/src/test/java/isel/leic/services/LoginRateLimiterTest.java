@@ -0,0 +1,58 @@
+package isel.leic.services;
+
+import io.quarkus.test.junit.QuarkusTest;
+import isel.leic.exception.TooManyRequestsException;
+import isel.leic.service.LoginRateLimiter;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class LoginRateLimiterTest {
+
+    @Inject
+    LoginRateLimiter loginRateLimiter;
+
+    @ConfigProperty(name = "security.login.username.capacity")
+    int usernameCapacity;
+
+    @Test
+    public void testConcurrentLoginsTakeExactlyTheBucketCapacity() throws InterruptedException, ExecutionException {
+        int attempts = usernameCapacity * 4;
+        AtomicInteger allowed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            List<Future<?>> logins = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                logins.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        loginRateLimiter.checkLogin("rate-limited-user", null);
+                        allowed.incrementAndGet();
+                    } catch (TooManyRequestsException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> login : logins) {
+                login.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(usernameCapacity, allowed.get(), "Concurrent logins did not share one token bucket");
+        assertEquals(attempts - usernameCapacity, rejected.get());
+    }
+}
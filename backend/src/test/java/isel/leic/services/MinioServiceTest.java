@@ -1,14 +1,17 @@
 package isel.leic.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.junit.QuarkusTest;
 import isel.leic.model.storage.FileObject;
 import isel.leic.model.storage.FormData;
+import isel.leic.model.storage.ObjectDownload;
 import isel.leic.service.MinioService;
 import jakarta.inject.Inject;
 
 import org.junit.jupiter.api.*;
 import software.amazon.awssdk.services.s3.model.Bucket;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -24,6 +27,9 @@ public class MinioServiceTest {
     @Inject
     MinioService minioService;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
     @Test
     @Order(1)
     public void testCreateBucket() {
@@ -61,7 +67,12 @@ public class MinioServiceTest {
     @Test
     @Order(5)
     public void testDownloadFile() throws IOException {
-        byte[] fileBytes = minioService.downloadObject("test-bucket", "home/test-file.txt");
+        ObjectDownload download = minioService.downloadObject("test-bucket", "home/test-file.txt");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        download.getBody().write(outputStream);
+        byte[] fileBytes = outputStream.toByteArray();
+        assertEquals(fileBytes.length, download.getContentLength().longValue(), "Content length does not match streamed bytes");
+        assertNotNull(download.getETag(), "ETag is null");
 
         Path downloadedFilePath = Paths.get("src/main/resources/downloaded-test-file.txt");
         Files.write(downloadedFilePath, fileBytes);
@@ -124,4 +135,17 @@ public class MinioServiceTest {
 
         minioService.deleteBucket("test-bucket");
     }
+
+    @Test
+    @Order(8)
+    public void testStorageCallsAreMetered() {
+        assertTrue(meterRegistry.get("minio.requests").tag("operation", "PutObject").tag("outcome", "success").timer().count() > 0,
+                "PutObject calls were not timed");
+        assertTrue(meterRegistry.get("minio.requests").tag("operation", "GetObject").timer().count() > 0,
+                "GetObject calls were not timed");
+        assertTrue(meterRegistry.get("minio.transfer.bytes").tag("direction", "download").counter().count() > 0,
+                "Downloaded bytes were not counted");
+        assertTrue(meterRegistry.get("minio.object.size").tag("direction", "upload").summary().count() > 0,
+                "Uploaded object sizes were not recorded");
+    }
 }
@@ -0,0 +1,39 @@
+package isel.leic.services;
+
+import io.quarkus.test.junit.QuarkusTest;
+import isel.leic.service.MultipartPartLedger;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class MultipartPartLedgerTest {
+
+    @Inject
+    MultipartPartLedger multipartPartLedger;
+
+    @Test
+    public void testPartsAreOnlyUsedWhenEveryPartWasSeen() {
+        String uploadId = "ledger-upload";
+        multipartPartLedger.record(uploadId, 1, "\"etag-1\"");
+        multipartPartLedger.record(uploadId, 3, "\"etag-3\"");
+
+        // Part 2 went through another replica
+        assertTrue(multipartPartLedger.completedParts(uploadId, 3).isEmpty(), "Ledger with a missing part was trusted");
+        assertTrue(multipartPartLedger.completedParts(uploadId, 2).isEmpty(), "Ledger with a different part count was trusted");
+
+        multipartPartLedger.record(uploadId, 2, "\"etag-2\"");
+        Optional<List<CompletedPart>> parts = multipartPartLedger.completedParts(uploadId, 3);
+        assertTrue(parts.isPresent(), "Ledger holding every part was not used");
+        assertEquals(List.of(1, 2, 3), parts.get().stream().map(CompletedPart::partNumber).toList());
+        assertTrue(multipartPartLedger.completedParts(uploadId, 4).isEmpty(), "Ledger was trusted for more parts than it holds");
+
+        multipartPartLedger.forget(uploadId);
+        assertTrue(multipartPartLedger.completedParts(uploadId, 3).isEmpty());
+    }
+}
@@ -0,0 +1,253 @@
+package isel.leic.services;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import isel.leic.service.MultipartUploadEngine;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+@TestProfile(MultipartUploadEngineTest.SmallParts.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MultipartUploadEngineTest {
+
+    private static final long PART_SIZE = 5L * 1024 * 1024;
+
+    @Inject
+    MultipartUploadEngine multipartUploadEngine;
+
+    @InjectMock
+    S3Client minioClient;
+
+    @ConfigProperty(name = "minio.upload.parallelism")
+    int parallelism;
+
+    private final Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public static class SmallParts implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "minio.upload.part-size", String.valueOf(PART_SIZE),
+                    "minio.upload.parallelism", "2",
+                    "minio.upload.part-retries", "2");
+        }
+    }
+
+    @BeforeEach
+    public void stubUploads() {
+        when(minioClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(minioClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().build());
+        when(minioClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(AbortMultipartUploadResponse.builder().build());
+    }
+
+    @Test
+    @Order(1)
+    public void testFailedPartIsRetried() throws IOException {
+        stubPartUploads(2, 2);
+
+        multipartUploadEngine.upload("test-bucket", "retry.bin", "application/octet-stream", sparseFile(3));
+
+        assertEquals(3, attempts.get(2).get(), "Part 2 was not retried until it succeeded");
+        verify(minioClient, times(5)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        assertEquals(List.of(1, 2, 3), completedPartNumbers());
+        verify(minioClient, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    @Order(2)
+    public void testUploadIsAbortedWhenRetriesAreExhausted() throws IOException {
+        stubPartUploads(2, Integer.MAX_VALUE);
+        Path source = sparseFile(3);
+
+        assertThrows(SdkException.class,
+                () -> multipartUploadEngine.upload("test-bucket", "failed.bin", "application/octet-stream", source));
+
+        assertEquals(3, attempts.get(2).get(), "Part 2 was not attempted once plus two retries");
+        verify(minioClient).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(minioClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    @Order(3)
+    public void testPartUploadsStayWithinWindow() throws IOException {
+        stubPartUploads(0, 0);
+
+        multipartUploadEngine.upload("test-bucket", "window.bin", "application/octet-stream", sparseFile(8));
+
+        assertEquals(parallelism, maxInFlight.get(), "Parts were not uploaded up to, and only up to, the configured parallelism");
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), completedPartNumbers());
+    }
+
+    @Test
+    @Order(4)
+    public void testStreamingUploadPausesBodyWhenWindowIsFull() {
+        stubPartUploads(0, 0);
+        ChunkedBody body = new ChunkedBody(6);
+
+        multipartUploadEngine.upload("test-bucket", "stream.bin", "application/octet-stream", body)
+                .await().atMost(Duration.ofSeconds(30));
+
+        assertTrue(body.pausesWhileStreaming.get() > 0, "Request body was never paused while parts were in flight");
+        assertTrue(maxInFlight.get() <= parallelism, "More parts in flight than the configured parallelism: " + maxInFlight.get());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), completedPartNumbers());
+    }
+
+    @Test
+    @Order(5)
+    public void testStreamingUploadIsAbortedWhenAPartFails() {
+        stubPartUploads(3, Integer.MAX_VALUE);
+        ChunkedBody body = new ChunkedBody(6);
+
+        assertThrows(SdkException.class, () -> multipartUploadEngine.upload("test-bucket", "stream-failed.bin", "application/octet-stream", body)
+                .await().atMost(Duration.ofSeconds(30)));
+
+        verify(minioClient, timeout(5000)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(minioClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    /**
+     * Every UploadPart takes 50 ms and tracks how many run at once; {@code failingPart} fails its first {@code failures} attempts.
+     */
+    private void stubPartUploads(int failingPart, int failures) {
+        when(minioClient.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            int attempt = attempts.computeIfAbsent(request.partNumber(), part -> new AtomicInteger()).incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                if (request.partNumber() == failingPart && attempt <= failures) {
+                    throw SdkClientException.create("Connection reset uploading part " + failingPart);
+                }
+                return UploadPartResponse.builder().eTag("\"etag-" + request.partNumber() + "\"").build();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private List<Integer> completedPartNumbers() {
+        ArgumentCaptor<CompleteMultipartUploadRequest> request = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(minioClient).completeMultipartUpload(request.capture());
+        return request.getValue().multipartUpload().parts().stream()
+                .map(CompletedPart::partNumber)
+                .toList();
+    }
+
+    /**
+     * Request body that emits {@code parts} part-sized chunks as fast as it is allowed to, from a single thread
+     * like an event loop would, and counts how often the upload pauses it mid-stream.
+     */
+    private static final class ChunkedBody implements ReadStream<Buffer> {
+        private final ExecutorService eventLoop = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chunked-body");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final AtomicInteger pausesWhileStreaming = new AtomicInteger();
+        private final byte[] chunk = new byte[(int) PART_SIZE];
+        private int remaining;
+        private volatile boolean paused;
+        private volatile boolean started;
+        private Handler<Buffer> handler;
+        private Handler<Void> endHandler;
+
+        private ChunkedBody(int parts) {
+            this.remaining = parts;
+        }
+
+        @Override
+        public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+            this.handler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> pause() {
+            paused = true;
+            if (started) {
+                pausesWhileStreaming.incrementAndGet();
+            }
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> resume() {
+            paused = false;
+            eventLoop.execute(this::emit);
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> fetch(long amount) {
+            return resume();
+        }
+
+        @Override
+        public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
+        }
+
+        private void emit() {
+            started = true;
+            while (!paused && remaining > 0) {
+                remaining--;
+                handler.handle(Buffer.buffer(chunk));
+            }
+            if (remaining == 0 && endHandler != null) {
+                Handler<Void> end = endHandler;
+                endHandler = null;
+                end.handle(null);
+                eventLoop.shutdown();
+            }
+        }
+    }
+
+    private static Path sparseFile(int parts) throws IOException {
+        Path file = Files.createTempFile("multipart", ".bin");
+        file.toFile().deleteOnExit();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            randomAccessFile.setLength(parts * PART_SIZE);
+        }
+        return file;
+    }
+}
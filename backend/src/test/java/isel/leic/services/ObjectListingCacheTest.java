@@ -0,0 +1,99 @@
+package isel.leic.services;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import isel.leic.model.storage.FileObject;
+import isel.leic.service.ObjectListingCache;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(ObjectListingCacheTest.SmallCache.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ObjectListingCacheTest {
+
+    @Inject
+    ObjectListingCache objectListingCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    public static class SmallCache implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "minio.listing-cache.max-entries", "10",
+                    "minio.listing-cache.max-objects", "5",
+                    "minio.listing-cache.ttl", "PT5M");
+        }
+    }
+
+    @Test
+    @Order(1)
+    public void testWriteInvalidatesBucket() {
+        objectListingCache.get("cache-bucket", null, null, loader(2));
+        objectListingCache.get("cache-bucket", null, null, loader(2));
+        assertEquals(1, loads.get(), "Second listing was not served from the cache");
+
+        objectListingCache.invalidate("other-bucket");
+        objectListingCache.get("cache-bucket", null, null, loader(2));
+        assertEquals(1, loads.get(), "Write to another bucket invalidated this one");
+
+        objectListingCache.invalidate("cache-bucket");
+        objectListingCache.get("cache-bucket", null, null, loader(2));
+        assertEquals(2, loads.get(), "Listing was not reloaded after a write");
+    }
+
+    @Test
+    @Order(2)
+    public void testPresignedUploadBypassesCacheUntilUrlExpires() throws InterruptedException {
+        objectListingCache.get("presigned-bucket", null, null, loader(1));
+        objectListingCache.bypass("presigned-bucket", Duration.ofMillis(300));
+
+        objectListingCache.get("presigned-bucket", null, null, loader(1));
+        objectListingCache.get("presigned-bucket", null, null, loader(1));
+        assertEquals(3, loads.get(), "Listing was cached while a presigned upload could still land");
+
+        Thread.sleep(400);
+        objectListingCache.get("presigned-bucket", null, null, loader(1));
+        objectListingCache.get("presigned-bucket", null, null, loader(1));
+        assertEquals(4, loads.get(), "Caching did not resume once the presigned URL expired");
+    }
+
+    @Test
+    @Order(3)
+    public void testEntriesAreWeighedByObjectCount() {
+        objectListingCache.get("weighed-bucket", "large/", null, loader(4));
+        objectListingCache.get("weighed-bucket", "small/", null, loader(3));
+        assertEquals(2, loads.get());
+
+        // 4 + 3 objects exceed the bound of 5, so the least recently used listing was evicted
+        objectListingCache.get("weighed-bucket", "small/", null, loader(3));
+        assertEquals(2, loads.get(), "Most recent listing was evicted");
+        objectListingCache.get("weighed-bucket", "large/", null, loader(4));
+        assertEquals(3, loads.get(), "Cache held more objects than its bound");
+
+        objectListingCache.get("weighed-bucket", "huge/", null, loader(6));
+        objectListingCache.get("weighed-bucket", "huge/", null, loader(6));
+        assertEquals(5, loads.get(), "Listing larger than the whole cache was cached");
+    }
+
+    private Supplier<List<FileObject>> loader(int objects) {
+        return () -> {
+            loads.incrementAndGet();
+            return IntStream.range(0, objects)
+                    .mapToObj(i -> FileObject.from(S3Object.builder().key("file-" + i).size(1L).build()))
+                    .toList();
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package isel.leic.services;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import isel.leic.service.ObjectRenameEngine;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+@TestProfile(ObjectRenameEngineTest.LargeCopyParts.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ObjectRenameEngineTest {
+
+    private static final long GIB = 1024L * 1024 * 1024;
+
+    @Inject
+    ObjectRenameEngine objectRenameEngine;
+
+    @InjectMock
+    S3Client minioClient;
+
+    public static class LargeCopyParts implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("minio.rename.copy-part-size", String.valueOf(2 * GIB));
+        }
+    }
+
+    @BeforeEach
+    public void stubCopies() {
+        when(minioClient.copyObject(any(CopyObjectRequest.class))).thenReturn(CopyObjectResponse.builder().build());
+        when(minioClient.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder().build());
+        when(minioClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("copy-1").build());
+        when(minioClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().build());
+        when(minioClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(AbortMultipartUploadResponse.builder().build());
+    }
+
+    @Test
+    @Order(1)
+    public void testPrefixIsListedBeforeAnythingIsCopied() {
+        when(minioClient.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(object("docs/"), object("docs/a.txt"))
+                        .isTruncated(true)
+                        .nextContinuationToken("page-2")
+                        .build())
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(object("docs/sub/b.txt"))
+                        .isTruncated(false)
+                        .build());
+
+        int renamed = objectRenameEngine.renamePrefix("test-bucket", "docs/", "papers/");
+
+        assertEquals(3, renamed);
+        InOrder inOrder = inOrder(minioClient);
+        inOrder.verify(minioClient, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+        inOrder.verify(minioClient, times(3)).copyObject(any(CopyObjectRequest.class));
+        inOrder.verify(minioClient).deleteObjects(any(DeleteObjectsRequest.class));
+
+        ArgumentCaptor<CopyObjectRequest> copies = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        verify(minioClient, times(3)).copyObject(copies.capture());
+        assertEquals(Map.of("docs/", "papers/", "docs/a.txt", "papers/a.txt", "docs/sub/b.txt", "papers/sub/b.txt"),
+                copies.getAllValues().stream().collect(Collectors.toMap(CopyObjectRequest::sourceKey, CopyObjectRequest::destinationKey)));
+
+        ArgumentCaptor<DeleteObjectsRequest> deletes = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(minioClient).deleteObjects(deletes.capture());
+        assertEquals(List.of("docs/", "docs/a.txt", "docs/sub/b.txt"),
+                deletes.getValue().delete().objects().stream().map(ObjectIdentifier::key).sorted().toList());
+    }
+
+    @Test
+    @Order(2)
+    public void testFolderCannotBeMovedIntoItself() {
+        assertThrows(IllegalArgumentException.class, () -> objectRenameEngine.renamePrefix("test-bucket", "docs/", "docs/archive/"));
+        assertThrows(IllegalArgumentException.class, () -> objectRenameEngine.renamePrefix("test-bucket", "docs/", "docs/"));
+
+        verify(minioClient, never()).listObjectsV2(any(ListObjectsV2Request.class));
+        verify(minioClient, never()).copyObject(any(CopyObjectRequest.class));
+        verify(minioClient, never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    @Order(3)
+    public void testLargeObjectIsCopiedInRanges() {
+        when(minioClient.uploadPartCopy(any(UploadPartCopyRequest.class))).thenAnswer(invocation -> {
+            UploadPartCopyRequest request = invocation.getArgument(0);
+            return UploadPartCopyResponse.builder()
+                    .copyPartResult(CopyPartResult.builder().eTag("\"etag-" + request.partNumber() + "\"").build())
+                    .build();
+        });
+
+        objectRenameEngine.renameObject("test-bucket", "video.bin", "movie.bin", 5 * GIB + 1);
+
+        ArgumentCaptor<UploadPartCopyRequest> parts = ArgumentCaptor.forClass(UploadPartCopyRequest.class);
+        verify(minioClient, times(3)).uploadPartCopy(parts.capture());
+        assertEquals(List.of("bytes=0-" + (2 * GIB - 1), "bytes=" + 2 * GIB + "-" + (4 * GIB - 1), "bytes=" + 4 * GIB + "-" + 5 * GIB),
+                parts.getAllValues().stream().map(UploadPartCopyRequest::copySourceRange).toList());
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(minioClient).completeMultipartUpload(complete.capture());
+        assertEquals("movie.bin", complete.getValue().key());
+        assertEquals(List.of("\"etag-1\"", "\"etag-2\"", "\"etag-3\""),
+                complete.getValue().multipartUpload().parts().stream().map(CompletedPart::eTag).toList());
+        verify(minioClient, never()).copyObject(any(CopyObjectRequest.class));
+        verify(minioClient).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    @Order(4)
+    public void testFailedMultipartCopyIsAbortedAndSourceKept() {
+        when(minioClient.uploadPartCopy(any(UploadPartCopyRequest.class)))
+                .thenReturn(UploadPartCopyResponse.builder()
+                        .copyPartResult(CopyPartResult.builder().eTag("\"etag-1\"").build())
+                        .build())
+                .thenThrow(SdkClientException.create("Connection reset copying part 2"));
+
+        assertThrows(SdkException.class, () -> objectRenameEngine.renameObject("test-bucket", "video.bin", "movie.bin", 5 * GIB + 1));
+
+        verify(minioClient).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(minioClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(minioClient, never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    private static S3Object object(String key) {
+        return S3Object.builder().key(key).size(1L).build();
+    }
+}
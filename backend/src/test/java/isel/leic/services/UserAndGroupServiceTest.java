@@ -4,6 +4,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import isel.leic.exception.DuplicateResourceException;
 import isel.leic.exception.GroupNotFoundException;
 import isel.leic.model.Group;
+import isel.leic.model.GroupMembershipChange;
 import isel.leic.model.User;
 import isel.leic.service.GroupService;
 import isel.leic.service.UserService;
@@ -116,6 +117,24 @@ public class UserAndGroupServiceTest {
         assertEquals(1, usersFromGroup.size());
         userService.removeUser(user2.getId());
     }
+    @Test
+    @Order(8)
+    public void testBulkMembershipChanges() {
+        User owner = userService.findByUsername("user1");
+        User user3 = userService.findByUsername("user3");
+        Group group = userService.findUserGroups(owner.getId()).get(0);
+
+        GroupMembershipChange removed = groupService.removeUsersFromGroup(List.of(user3.getId(), owner.getId()), group.getId());
+        assertEquals(List.of(user3.getId()), removed.applied());
+        assertEquals(List.of(owner.getId()), removed.skipped());
+        assertTrue(groupService.getGroupMembers(group.getId()).isEmpty());
+
+        GroupMembershipChange added = groupService.addUsersToGroup(List.of(user3.getId(), user3.getId(), owner.getId()), group.getId());
+        assertEquals(List.of(user3.getId()), added.applied());
+        assertEquals(List.of(owner.getId()), added.skipped());
+        assertEquals(1, groupService.getGroupMembers(group.getId()).size());
+    }
+
     @Test
     @Order(7)
     public void testUpdateGroupName() {
@@ -129,7 +148,7 @@ public class UserAndGroupServiceTest {
 
     }
     @Test
-    @Order(8)
+    @Order(9)
     public void testRemoveGroup() {
         User user = userService.findByUsername("user3");
         groupService.createGroup(user.getId(),"TestGroup2");
@@ -147,7 +166,7 @@ public class UserAndGroupServiceTest {
     }
 
     @Test
-    @Order(9)
+    @Order(10)
     public void testDeleteUser() {
         User user = userService.findByUsername("user1");
         User user3 = userService.findByUsername("user3");
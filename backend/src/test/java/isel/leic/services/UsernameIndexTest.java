@@ -0,0 +1,86 @@
+package isel.leic.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import isel.leic.model.User;
+import isel.leic.model.UserSummary;
+import isel.leic.repository.UserRepository;
+import isel.leic.service.UserService;
+import isel.leic.service.UsernameIndex;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class UsernameIndexTest {
+
+    @Inject
+    UsernameIndex usernameIndex;
+
+    @Inject
+    UserService userService;
+
+    @Inject
+    UserRepository userRepository;
+
+    private static Long committedUserId;
+    private static Long unindexedUserId;
+
+    @Test
+    @Order(1)
+    public void testUserIsIndexedAfterCommit() {
+        usernameIndex.reconcile();
+        assertTrue(usernameIndex.isReady());
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            User user = userService.createUser(new User("idx-committed", "password1"));
+            committedUserId = user.getId();
+            assertTrue(usernameIndex.findByPrefix("idx-committed", 10).isEmpty(), "User was indexed before the transaction committed");
+        });
+
+        assertEquals(List.of(new UserSummary(committedUserId, "idx-committed")), usernameIndex.findByPrefix("idx-committed", 10));
+    }
+
+    @Test
+    @Order(2)
+    public void testRolledBackUserIsNotIndexed() {
+        assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            userService.createUser(new User("idx-rolled-back", "password1"));
+            throw new IllegalStateException("Signup failed after the user was persisted");
+        }));
+
+        assertTrue(usernameIndex.findByPrefix("idx-rolled-back", 10).isEmpty(), "Rolled back user was indexed");
+        assertTrue(userRepository.findByUsername("idx-rolled-back").isEmpty());
+    }
+
+    @Test
+    @Order(3)
+    public void testRemovedUserIsDroppedAfterCommit() {
+        userService.removeUser(committedUserId);
+
+        assertTrue(usernameIndex.findByPrefix("idx-committed", 10).isEmpty(), "Removed user is still indexed");
+    }
+
+    @Test
+    @Order(4)
+    public void testReconcilePicksUpChangesFromOtherReplicas() {
+        // Written straight to the database, as another replica would
+        QuarkusTransaction.requiringNew().run(() -> {
+            User user = new User("idx-unindexed", "password1");
+            userRepository.persist(user);
+            unindexedUserId = user.getId();
+        });
+        assertTrue(usernameIndex.findByPrefix("idx-unindexed", 10).isEmpty());
+
+        usernameIndex.reconcile();
+        assertEquals(List.of(new UserSummary(unindexedUserId, "idx-unindexed")), usernameIndex.findByPrefix("idx-unindexed", 10));
+
+        QuarkusTransaction.requiringNew().run(() -> userRepository.deleteById(unindexedUserId));
+        usernameIndex.reconcile();
+        assertTrue(usernameIndex.findByPrefix("idx-unindexed", 10).isEmpty(), "Reconcile kept a user deleted elsewhere");
+    }
+}
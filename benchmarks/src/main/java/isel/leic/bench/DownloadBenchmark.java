@@ -0,0 +1,61 @@
+package isel.leic.bench;
+
+import isel.leic.service.BenchmarkServices;
+import isel.leic.service.MinioService;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.manager=org.jboss.logmanager.LogManager")
+public class DownloadBenchmark {
+
+    private static final String BUCKET = "1-bucket";
+    private static final String KEY = "object.bin";
+
+    @Param({"65536", "8388608"})
+    int objectSize;
+
+    private InMemoryS3Client s3Client;
+    private MinioService minioService;
+    private GetObjectRequest request;
+
+    @Setup
+    public void setup() {
+        byte[] data = new byte[objectSize];
+        new Random(42).nextBytes(data);
+        s3Client = new InMemoryS3Client();
+        s3Client.put(BUCKET, KEY, data);
+        minioService = BenchmarkServices.minioService(s3Client, false);
+        request = GetObjectRequest.builder().bucket(BUCKET).key(KEY).build();
+    }
+
+    @Benchmark
+    public void pooledStreaming() throws IOException {
+        minioService.downloadObject(BUCKET, KEY).getBody().write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        try (ResponseInputStream<GetObjectResponse> input = s3Client.getObject(request)) {
+            return input.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public int readAllBytes() throws IOException {
+        try (ResponseInputStream<GetObjectResponse> input = s3Client.getObject(request)) {
+            return input.readAllBytes().length;
+        }
+    }
+}
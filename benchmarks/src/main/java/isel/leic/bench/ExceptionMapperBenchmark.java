@@ -0,0 +1,48 @@
+package isel.leic.bench;
+
+import isel.leic.exception.TooManyRequestsException;
+import isel.leic.exception.UserNotFoundException;
+import isel.leic.exception.mapper.ExceptionMapper;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.manager=org.jboss.logmanager.LogManager")
+public class ExceptionMapperBenchmark {
+
+    private ExceptionMapper exceptionMapper;
+    private CompletionException completionException;
+    private UserNotFoundException userNotFoundException;
+    private TooManyRequestsException tooManyRequestsException;
+
+    @Setup
+    public void setup() {
+        exceptionMapper = new ExceptionMapper();
+        completionException = new CompletionException("software.amazon.awssdk.services.s3.model.NoSuchKeyException: "
+                + "The specified key does not exist. (Service: S3, Status Code: 404, Request ID: 17C2A5E1B3F0D9A4)", null);
+        userNotFoundException = new UserNotFoundException("User with ID 42 not found");
+        tooManyRequestsException = new TooManyRequestsException("Login temporarily blocked", 1);
+    }
+
+    @Benchmark
+    public RestResponse<String> mapCompletionException() {
+        return exceptionMapper.mapCompletionException(completionException);
+    }
+
+    @Benchmark
+    public RestResponse<String> mapUserNotFoundException() {
+        return exceptionMapper.mapUserNotFoundException(userNotFoundException);
+    }
+
+    @Benchmark
+    public RestResponse<String> mapTooManyRequestsException() {
+        return exceptionMapper.mapTooManyRequestsException(tooManyRequestsException);
+    }
+}
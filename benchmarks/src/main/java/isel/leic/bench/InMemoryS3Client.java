@@ -0,0 +1,166 @@
+package isel.leic.bench;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public class InMemoryS3Client implements S3Client {
+
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    private final Map<String, NavigableMap<String, StoredObject>> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public void put(String bucketName, String key, byte[] data) {
+        buckets.computeIfAbsent(bucketName, name -> new ConcurrentSkipListMap<>())
+                .put(key, new StoredObject(data, "\"" + Integer.toHexString(Arrays.hashCode(data)) + "\"", Instant.now(), "application/octet-stream"));
+    }
+
+    @Override
+    public CreateBucketResponse createBucket(CreateBucketRequest request) {
+        if (buckets.putIfAbsent(request.bucket(), new ConcurrentSkipListMap<>()) != null) {
+            throw BucketAlreadyOwnedByYouException.builder().message("Bucket already exists: " + request.bucket()).statusCode(409).build();
+        }
+        return CreateBucketResponse.builder().build();
+    }
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest request, RequestBody requestBody) {
+        try (InputStream content = requestBody.contentStreamProvider().newStream()) {
+            put(request.bucket(), request.key(), content.readAllBytes());
+        } catch (IOException e) {
+            throw SdkClientException.create(e.getMessage(), e);
+        }
+        return PutObjectResponse.builder().eTag(object(request.bucket(), request.key()).eTag()).build();
+    }
+
+    @Override
+    public HeadObjectResponse headObject(HeadObjectRequest request) {
+        StoredObject object = object(request.bucket(), request.key());
+        return HeadObjectResponse.builder()
+                .contentLength((long) object.data().length)
+                .contentType(object.contentType())
+                .eTag(object.eTag())
+                .lastModified(object.lastModified())
+                .build();
+    }
+
+    @Override
+    public <ReturnT> ReturnT getObject(GetObjectRequest request, ResponseTransformer<GetObjectResponse, ReturnT> responseTransformer) {
+        StoredObject object = object(request.bucket(), request.key());
+        int size = object.data().length;
+        int offset = 0;
+        int length = size;
+        GetObjectResponse.Builder response = GetObjectResponse.builder()
+                .contentType(object.contentType())
+                .eTag(object.eTag())
+                .lastModified(object.lastModified());
+        if (request.range() != null && request.range().startsWith("bytes=")) {
+            String[] bounds = request.range().substring("bytes=".length()).split("-", 2);
+            if (bounds[0].isEmpty()) {
+                offset = Math.max(0, size - Integer.parseInt(bounds[1]));
+            } else {
+                offset = Integer.parseInt(bounds[0]);
+            }
+            int end = bounds[0].isEmpty() || bounds[1].isEmpty() ? size - 1 : Math.min(size - 1, Integer.parseInt(bounds[1]));
+            length = end - offset + 1;
+            response.contentRange("bytes " + offset + "-" + end + "/" + size);
+        }
+        response.contentLength((long) length);
+        try {
+            return responseTransformer.transform(response.build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(object.data(), offset, length)));
+        } catch (Exception e) {
+            throw SdkClientException.create(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+        NavigableMap<String, StoredObject> bucket = bucket(request.bucket());
+        String prefix = request.prefix() == null ? "" : request.prefix();
+        String start = request.continuationToken() != null ? request.continuationToken() : request.startAfter();
+        int maxKeys = request.maxKeys() == null ? DEFAULT_MAX_KEYS : request.maxKeys();
+
+        NavigableMap<String, StoredObject> candidates = start != null && start.compareTo(prefix) >= 0
+                ? bucket.tailMap(start, false)
+                : bucket.tailMap(prefix, true);
+        List<S3Object> contents = new ArrayList<>();
+        Set<String> commonPrefixes = new LinkedHashSet<>();
+        String lastKey = null;
+        boolean truncated = false;
+        for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            if (contents.size() + commonPrefixes.size() >= maxKeys) {
+                truncated = true;
+                break;
+            }
+            int delimiterIndex = request.delimiter() == null ? -1 : key.indexOf(request.delimiter(), prefix.length());
+            if (delimiterIndex >= 0) {
+                commonPrefixes.add(key.substring(0, delimiterIndex + request.delimiter().length()));
+            } else {
+                StoredObject object = entry.getValue();
+                contents.add(S3Object.builder()
+                        .key(key)
+                        .size((long) object.data().length)
+                        .eTag(object.eTag())
+                        .lastModified(object.lastModified())
+                        .storageClass(ObjectStorageClass.STANDARD)
+                        .build());
+            }
+            lastKey = key;
+        }
+        return ListObjectsV2Response.builder()
+                .name(request.bucket())
+                .prefix(request.prefix())
+                .delimiter(request.delimiter())
+                .contents(contents)
+                .commonPrefixes(commonPrefixes.stream().map(p -> CommonPrefix.builder().prefix(p).build()).toList())
+                .keyCount(contents.size() + commonPrefixes.size())
+                .maxKeys(maxKeys)
+                .isTruncated(truncated)
+                .nextContinuationToken(truncated ? lastKey : null)
+                .build();
+    }
+
+    private NavigableMap<String, StoredObject> bucket(String bucketName) {
+        NavigableMap<String, StoredObject> bucket = buckets.get(bucketName);
+        if (bucket == null) {
+            throw NoSuchBucketException.builder().message("Bucket not found: " + bucketName).statusCode(404).build();
+        }
+        return bucket;
+    }
+
+    private StoredObject object(String bucketName, String key) {
+        StoredObject object = bucket(bucketName).get(key);
+        if (object == null) {
+            throw NoSuchKeyException.builder().message("Key not found: " + key).statusCode(404).build();
+        }
+        return object;
+    }
+
+    private record StoredObject(byte[] data, String eTag, Instant lastModified, String contentType) {
+    }
+}
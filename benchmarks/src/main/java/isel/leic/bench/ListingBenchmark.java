@@ -0,0 +1,62 @@
+package isel.leic.bench;
+
+import isel.leic.model.storage.FileObject;
+import isel.leic.model.storage.ObjectPage;
+import isel.leic.service.BenchmarkServices;
+import isel.leic.service.MinioService;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.manager=org.jboss.logmanager.LogManager")
+public class ListingBenchmark {
+
+    private static final String BUCKET = "1-bucket";
+
+    @Param({"100", "10000"})
+    int objectCount;
+
+    private List<S3Object> s3Objects;
+    private MinioService uncachedService;
+    private MinioService cachedService;
+
+    @Setup
+    public void setup() {
+        InMemoryS3Client s3Client = new InMemoryS3Client();
+        for (int i = 0; i < objectCount; i++) {
+            s3Client.put(BUCKET, "folder-" + (i % 10) + "/file-" + i + ".txt", new byte[]{1});
+        }
+        s3Objects = s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder().bucket(BUCKET).build())
+                .contents().stream().toList();
+        uncachedService = BenchmarkServices.minioService(s3Client, false);
+        cachedService = BenchmarkServices.minioService(s3Client, true);
+    }
+
+    @Benchmark
+    public List<FileObject> mapFileObjects() {
+        return s3Objects.stream().map(FileObject::from).toList();
+    }
+
+    @Benchmark
+    public List<FileObject> listObjectsUncached() {
+        return uncachedService.listObjects(BUCKET, null, null);
+    }
+
+    @Benchmark
+    public List<FileObject> listObjectsCached() {
+        return cachedService.listObjects(BUCKET, null, null);
+    }
+
+    @Benchmark
+    public ObjectPage listFirstPage() {
+        return uncachedService.listObjectsPage(BUCKET, "folder-1/", null, 100, null);
+    }
+}
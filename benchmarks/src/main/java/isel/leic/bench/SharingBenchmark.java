@@ -0,0 +1,74 @@
+package isel.leic.bench;
+
+import isel.leic.model.FileSharing;
+import isel.leic.model.FileSharingResponse;
+import isel.leic.service.BenchmarkServices;
+import isel.leic.service.FileSharingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.manager=org.jboss.logmanager.LogManager")
+public class SharingBenchmark {
+
+    private static final long RECIPIENT_ID = 1L;
+    private static final long FIRST_OWNER_ID = 2L;
+    private static final int OWNERS = 20;
+
+    @Param({"10", "1000", "10000"})
+    int shareCount;
+
+    private SharingDatabase database;
+    private FileSharingService fileSharingService;
+
+    @Setup
+    public void setup() throws Exception {
+        database = new SharingDatabase();
+        database.insertUser(RECIPIENT_ID, "recipient");
+        for (int owner = 0; owner < OWNERS; owner++) {
+            database.insertUser(FIRST_OWNER_ID + owner, "owner-" + owner);
+        }
+
+        InMemoryS3Client s3Client = new InMemoryS3Client();
+        List<FileSharing> shares = new ArrayList<>(shareCount);
+        for (int i = 0; i < shareCount; i++) {
+            long ownerId = FIRST_OWNER_ID + i % OWNERS;
+            String filename = "folder-" + (i % 100) + "/file-" + i + ".txt";
+            shares.add(new FileSharing(ownerId, RECIPIENT_ID, filename));
+            s3Client.put(ownerId + "-bucket", filename, new byte[]{1});
+            s3Client.put(ownerId + "-bucket", "private/file-" + i + ".txt", new byte[]{1});
+        }
+        database.insertShares(shares);
+
+        fileSharingService = BenchmarkServices.fileSharingService(
+                BenchmarkServices.minioService(s3Client, false), database.fileSharingRepository(), database.userRepository());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        BenchmarkServices.shutdown(fileSharingService);
+        database.close();
+    }
+
+    @Benchmark
+    public boolean isFileSharedHit() {
+        return fileSharingService.isFileSharedWithUser(FIRST_OWNER_ID, RECIPIENT_ID, "folder-0/file-0.txt");
+    }
+
+    @Benchmark
+    public boolean isFileSharedMiss() {
+        return fileSharingService.isFileSharedWithUser(FIRST_OWNER_ID, RECIPIENT_ID, "folder-0/nested/missing.txt");
+    }
+
+    @Benchmark
+    public List<FileSharingResponse> filesSharedToUser() {
+        return fileSharingService.getFilesSharedToUser(RECIPIENT_ID);
+    }
+}
@@ -0,0 +1,143 @@
+package isel.leic.bench;
+
+import isel.leic.model.FileSharing;
+import isel.leic.model.User;
+import isel.leic.repository.FileSharingRepository;
+import isel.leic.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class SharingDatabase implements AutoCloseable {
+
+    private final Connection connection;
+
+    public SharingDatabase() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id bigint primary key, username varchar(255) not null unique, password varchar(255) not null)");
+            statement.execute("create table file_sharing (id bigint auto_increment primary key, shared_by_user_id bigint, shared_to_user_id bigint, filename varchar(1024) not null)");
+            statement.execute("create index idx_file_sharing_authorization on file_sharing (shared_by_user_id, shared_to_user_id, filename)");
+            statement.execute("create index idx_file_sharing_recipient on file_sharing (shared_to_user_id)");
+        }
+    }
+
+    public void insertUser(long id, String username) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("insert into users (id, username, password) values (?, ?, 'x')")) {
+            statement.setLong(1, id);
+            statement.setString(2, username);
+            statement.executeUpdate();
+        }
+    }
+
+    public void insertShares(List<FileSharing> shares) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("insert into file_sharing (shared_by_user_id, shared_to_user_id, filename) values (?, ?, ?)")) {
+            for (FileSharing share : shares) {
+                statement.setLong(1, share.getSharedByUserId());
+                statement.setLong(2, share.getSharedToUserId());
+                statement.setString(3, share.getFilename());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public FileSharingRepository fileSharingRepository() {
+        return new FileSharingRepository() {
+            @Override
+            public boolean existsByUsersAndFilenameIn(Long sharedByUserId, Long sharedToUserId, List<String> filenames) {
+                String placeholders = String.join(", ", Collections.nCopies(filenames.size(), "?"));
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "select 1 from file_sharing where shared_by_user_id = ? and shared_to_user_id = ? and filename in (" + placeholders + ") limit 1")) {
+                    statement.setLong(1, sharedByUserId);
+                    statement.setLong(2, sharedToUserId);
+                    for (int i = 0; i < filenames.size(); i++) {
+                        statement.setString(i + 3, filenames.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next();
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public Optional<List<FileSharing>> findBySharedToUserId(Long sharedToUserId) {
+                return Optional.of(findShares("shared_to_user_id", sharedToUserId));
+            }
+
+            @Override
+            public Optional<List<FileSharing>> findBySharedByUserId(Long sharedByUserId) {
+                return Optional.of(findShares("shared_by_user_id", sharedByUserId));
+            }
+        };
+    }
+
+    public UserRepository userRepository() {
+        return new UserRepository() {
+            @Override
+            public User findById(Long id) {
+                try (PreparedStatement statement = connection.prepareStatement("select username from users where id = ?")) {
+                    statement.setLong(1, id);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next() ? new User(resultSet.getString(1), "x") : null;
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public Map<Long, String> findUsernamesByIds(Collection<Long> ids) {
+                Map<Long, String> usernames = new HashMap<>();
+                try (PreparedStatement statement = connection.prepareStatement("select id, username from users where id = any(?)")) {
+                    statement.setArray(1, connection.createArrayOf("BIGINT", ids.toArray()));
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            usernames.put(resultSet.getLong(1), resultSet.getString(2));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                return usernames;
+            }
+        };
+    }
+
+    private List<FileSharing> findShares(String column, Long userId) {
+        List<FileSharing> shares = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select id, shared_by_user_id, shared_to_user_id, filename from file_sharing where " + column + " = ?")) {
+            statement.setLong(1, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    FileSharing share = new FileSharing(resultSet.getLong(2), resultSet.getLong(3), resultSet.getString(4));
+                    share.setId(resultSet.getLong(1));
+                    shares.add(share);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return shares;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,75 @@
+package isel.leic.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import isel.leic.repository.FileSharingRepository;
+import isel.leic.repository.UserRepository;
+import isel.leic.utils.BufferPools;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.time.Duration;
+
+public final class BenchmarkServices {
+
+    private BenchmarkServices() {
+    }
+
+    public static StorageMetrics storageMetrics() {
+        StorageMetrics storageMetrics = new StorageMetrics();
+        storageMetrics.meterRegistry = new SimpleMeterRegistry();
+        storageMetrics.bucketSuffix = "-bucket";
+        storageMetrics.percentileHistograms = true;
+        storageMetrics.init();
+        return storageMetrics;
+    }
+
+    public static MinioService minioService(S3Client s3Client, boolean listingCacheEnabled) {
+        ObjectListingCache objectListingCache = new ObjectListingCache();
+        objectListingCache.meterRegistry = new SimpleMeterRegistry();
+        objectListingCache.enabled = listingCacheEnabled;
+        objectListingCache.maxEntries = 10000;
+        objectListingCache.maxObjects = 1000000;
+        objectListingCache.ttl = Duration.ofSeconds(30);
+        objectListingCache.init();
+
+        MinioService minioService = new MinioService();
+        minioService.minioClient = s3Client;
+        minioService.bufferPool = BufferPools.create(65536, 64);
+        minioService.objectListingCache = objectListingCache;
+        minioService.storageMetrics = storageMetrics();
+        minioService.maxRanges = 16;
+        return minioService;
+    }
+
+    public static FileSharingService fileSharingService(MinioService minioService, FileSharingRepository fileSharingRepository,
+                                                        UserRepository userRepository) {
+        FileSharingService fileSharingService = new FileSharingService();
+        fileSharingService.minioService = minioService;
+        fileSharingService.fileSharingRepository = fileSharingRepository;
+        fileSharingService.userRepository = userRepository;
+        fileSharingService.storageMetrics = minioService.storageMetrics;
+        fileSharingService.listingParallelism = 8;
+        fileSharingService.listingExecutor = ManagedExecutor.builder()
+                .propagated(ThreadContext.NONE)
+                .cleared(ThreadContext.ALL_REMAINING)
+                .build();
+        return fileSharingService;
+    }
+
+    public static void shutdown(FileSharingService fileSharingService) {
+        fileSharingService.listingExecutor.shutdownNow();
+    }
+
+    public static TokenService tokenService(String privateKeyLocation, SignatureAlgorithm signatureAlgorithm) {
+        TokenService tokenService = new TokenService();
+        tokenService.privateKeyLocation = privateKeyLocation;
+        tokenService.signatureAlgorithm = signatureAlgorithm;
+        tokenService.keyReloadInterval = Duration.ofMinutes(1);
+        tokenService.tokenIssuer = "Cloudshare";
+        tokenService.tokenDuration = 604800L;
+        tokenService.init();
+        return tokenService;
+    }
+}
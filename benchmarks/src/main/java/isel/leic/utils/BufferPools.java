@@ -0,0 +1,15 @@
+package isel.leic.utils;
+
+public final class BufferPools {
+
+    private BufferPools() {
+    }
+
+    public static BufferPool create(int bufferSize, int poolSize) {
+        BufferPool bufferPool = new BufferPool();
+        bufferPool.bufferSize = bufferSize;
+        bufferPool.poolSize = poolSize;
+        bufferPool.init();
+        return bufferPool;
+    }
+}
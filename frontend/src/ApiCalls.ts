@@ -447,14 +447,14 @@ export const uploadPart = async (
 };
 
 
-export const completeMultipartUpload = async(userId: number, accessToken: string , filename: string, uploadId: string) => {
+export const completeMultipartUpload = async(userId: number, accessToken: string , filename: string, uploadId: string, partCount: number) => {
   const response = await fetch(`${rootPath}/user/${userId}/object/multipart/complete`, {
       method: 'POST',
       headers: {
           'Content-Type': 'application/json',
           'Authorization': `Bearer ${accessToken}`,
       },
-      body: JSON.stringify({ filename, uploadId })
+      body: JSON.stringify({ filename, uploadId, partCount })
   });
 
   if (!response.ok) {
@@ -334,7 +334,7 @@ const FileNavBar: React.FC<FileNavBarProps> = ({
           if (end < file.size) {
             await readAndUploadNextChunk(end);
           } else {
-            await completeMultipartUpload(userId, accessToken, modifiedFileName, uploadId);
+            await completeMultipartUpload(userId, accessToken, modifiedFileName, uploadId, partNumber - 1);
             await loadFiles(userId, accessToken);
             setUploadFiles(prevFiles =>
               prevFiles.filter(prevFile => prevFile.uploadId !== uploadId)
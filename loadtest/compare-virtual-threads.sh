@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Runs the same download-only load against the backend twice, first with the blocking endpoints on the
+# worker pool and then on virtual threads, and leaves one JSON report per mode in loadtest/target.
+# Expects the offline stack (embedded Postgres + fake S3) to be running already, see README.md.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+BACKEND_JAR=../backend/target/quarkus-app/quarkus-run.jar
+BASE_URL=${BASE_URL:-http://localhost:8080}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-PT60S}
+USERS=${USERS:-100}
+
+if [ ! -f "$BACKEND_JAR" ]; then
+  (cd ../backend && ./mvnw -B -q package -DskipTests)
+fi
+mvn -B -q compile
+
+for virtual in false true; do
+  java -Dquarkus.profile=offline -Dquarkus.virtual-threads.enabled="$virtual" -jar "$BACKEND_JAR" \
+    > "target/backend-vt-$virtual.log" 2>&1 &
+  backend=$!
+  trap 'kill $backend 2>/dev/null || true' EXIT
+
+  until curl -sf "$BASE_URL/q/metrics" > /dev/null; do
+    sleep 1
+  done
+
+  echo "quarkus.virtual-threads.enabled=$virtual"
+  mvn -B -q exec:java \
+    -Dload.base-url="$BASE_URL" \
+    -Dload.users="$USERS" \
+    -Dload.concurrency="$CONCURRENCY" \
+    -Dload.duration="$DURATION" \
+    -Dload.mix=download=100 \
+    -Dload.report="target/vt-$virtual.json"
+
+  kill "$backend"
+  wait "$backend" 2>/dev/null || true
+done
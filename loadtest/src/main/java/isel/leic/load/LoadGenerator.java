@@ -0,0 +1,300 @@
+package isel.leic.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator for the upload / list / share / download paths.
+ * Signs up {@code load.users} users, seeds one object each, then runs {@code load.concurrency}
+ * workers for {@code load.duration} and reports p50/p99 latency and MB/s per operation.
+ */
+public class LoadGenerator {
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String PASSWORD = "Load-test-pwd1";
+
+    enum Operation { UPLOAD, LIST, SHARE, DOWNLOAD }
+
+    record Config(URI baseUrl, int users, int concurrency, Duration duration, Duration warmup, int objectSize,
+                  Map<Operation, Integer> mix, Path report) {
+
+        static Config fromSystemProperties() {
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String entry : System.getProperty("load.mix", "upload=20,list=40,share=10,download=30").split(",")) {
+                String[] parts = entry.trim().split("=", 2);
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+            }
+            String report = System.getProperty("load.report");
+            return new Config(
+                    URI.create(System.getProperty("load.base-url", "http://localhost:8080")),
+                    Integer.getInteger("load.users", 20),
+                    Integer.getInteger("load.concurrency", 32),
+                    Duration.parse(System.getProperty("load.duration", "PT60S")),
+                    Duration.parse(System.getProperty("load.warmup", "PT10S")),
+                    Integer.getInteger("load.object-size", 1024 * 1024),
+                    mix,
+                    report == null ? null : Path.of(report));
+        }
+    }
+
+    record LoadUser(long id, String token, List<String> objectKeys) {
+    }
+
+    private final Config config;
+    private final HttpClient client;
+    private final byte[] payload;
+    private final List<LoadUser> users = new ArrayList<>();
+    private final AtomicLong uploadSequence = new AtomicLong();
+
+    LoadGenerator(Config config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.payload = new byte[config.objectSize()];
+        new Random(42).nextBytes(payload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.fromSystemProperties();
+        System.out.printf("Load test against %s: %d users, %d workers, %s (+%s warmup), %d byte objects, mix %s%n",
+                config.baseUrl(), config.users(), config.concurrency(), config.duration(), config.warmup(), config.objectSize(), config.mix());
+        LoadGenerator generator = new LoadGenerator(config);
+        generator.setUp();
+        generator.run(config.warmup());
+        Map<Operation, Stats> results = generator.run(config.duration());
+        String report = report(results, config.duration());
+        System.out.print(report);
+        if (config.report() != null) {
+            Files.writeString(config.report(), toJson(results, config.duration()));
+            System.out.println("Wrote " + config.report());
+        }
+    }
+
+    void setUp() throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis() % 2_176_782_336L, 36);
+        for (int i = 0; i < config.users(); i++) {
+            String body = "{\"username\":\"ld" + runId + i + "\",\"password\":\"" + PASSWORD + "\"}";
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(config.baseUrl().resolve("/auth/signup"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Signup failed with " + response.statusCode() + ": " + response.body());
+            }
+            LoadUser user = new LoadUser(Long.parseLong(match(ID_PATTERN, response.body())), match(TOKEN_PATTERN, response.body()),
+                    new CopyOnWriteArrayList<>());
+            users.add(user);
+            if (upload(user, new Stats()) == null) {
+                throw new IllegalStateException("Seed upload failed for user " + user.id());
+            }
+        }
+        System.out.printf("Signed up and seeded %d users%n", users.size());
+    }
+
+    Map<Operation, Stats> run(Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Map<Operation, Stats>> perWorker = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+                for (Operation operation : Operation.values()) {
+                    stats.put(operation, new Stats());
+                }
+                perWorker.add(stats);
+                workers.submit(() -> work(stats, deadline));
+            }
+        }
+        Map<Operation, Stats> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            Stats total = new Stats();
+            perWorker.forEach(stats -> total.merge(stats.get(operation)));
+            merged.put(operation, total);
+        }
+        return merged;
+    }
+
+    private void work(Map<Operation, Stats> stats, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < deadline) {
+            LoadUser user = users.get(random.nextInt(users.size()));
+            Operation operation = pick(random.nextInt(totalWeight));
+            Stats operationStats = stats.get(operation);
+            switch (operation) {
+                case UPLOAD -> upload(user, operationStats);
+                case LIST -> execute(operationStats, get(user, "/user/" + user.id() + "/object/page?limit=100"), 0);
+                case SHARE -> share(user, users.get(random.nextInt(users.size())), random, operationStats);
+                case DOWNLOAD -> {
+                    String key = user.objectKeys().get(random.nextInt(user.objectKeys().size()));
+                    execute(operationStats, get(user, "/user/" + user.id() + "/object/download/stream?objectKey=" + encode(key)), 0);
+                }
+            }
+        }
+    }
+
+    private Operation pick(int roll) {
+        for (Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private String upload(LoadUser user, Stats stats) {
+        String key = "load/" + uploadSequence.incrementAndGet() + ".bin";
+        HttpRequest request = authorized(user, "/user/" + user.id() + "/object/stream?filename=" + encode(key))
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+        if (!execute(stats, request, payload.length)) {
+            return null;
+        }
+        user.objectKeys().add(key);
+        return key;
+    }
+
+    private void share(LoadUser owner, LoadUser recipient, ThreadLocalRandom random, Stats stats) {
+        if (owner == recipient) {
+            recipient = users.get((users.indexOf(owner) + 1) % users.size());
+        }
+        String key = owner.objectKeys().get(random.nextInt(owner.objectKeys().size()));
+        String body = "{\"recipientType\":\"USER\",\"recipientId\":" + recipient.id() + ",\"filename\":\"" + key + "\"}";
+        execute(stats, authorized(owner, "/user/" + owner.id() + "/fileshare")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), 0);
+    }
+
+    private HttpRequest get(LoadUser user, String path) {
+        return authorized(user, path).GET().build();
+    }
+
+    private HttpRequest.Builder authorized(LoadUser user, String path) {
+        return HttpRequest.newBuilder(config.baseUrl().resolve(path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Authorization", "Bearer " + user.token());
+    }
+
+    /**
+     * Sends the request and drains the response, recording latency until the last byte is read.
+     * Bytes count the upload size when given, otherwise the downloaded body; re-shares (409) count as success.
+     */
+    private boolean execute(Stats stats, HttpRequest request, long uploadedBytes) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long received;
+            try (InputStream body = response.body()) {
+                received = body.transferTo(OutputStream.nullOutputStream());
+            }
+            boolean ok = response.statusCode() < 400 || response.statusCode() == 409;
+            stats.record(System.nanoTime() - start, uploadedBytes > 0 ? uploadedBytes : received, ok);
+            return ok;
+        } catch (IOException e) {
+            stats.record(System.nanoTime() - start, 0, false);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static String report(Map<Operation, Stats> results, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder(String.format("%n%-10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "MB/s"));
+        results.forEach((operation, stats) -> report.append(String.format("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                operation.name().toLowerCase(Locale.ROOT), stats.count(), stats.errors, stats.count() / seconds,
+                stats.percentileMillis(50), stats.percentileMillis(99), stats.percentileMillis(100),
+                stats.bytes / seconds / (1024 * 1024))));
+        return report.toString();
+    }
+
+    static String toJson(Map<Operation, Stats> results, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        StringJoiner operations = new StringJoiner(",", "{\"durationSeconds\":" + seconds + ",\"operations\":{", "}}");
+        results.forEach((operation, stats) -> operations.add(String.format(Locale.ROOT,
+                "\"%s\":{\"requests\":%d,\"errors\":%d,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f,\"mbPerSecond\":%.3f}",
+                operation.name().toLowerCase(Locale.ROOT), stats.count(), stats.errors, stats.percentileMillis(50),
+                stats.percentileMillis(99), stats.percentileMillis(100), stats.bytes / seconds / (1024 * 1024))));
+        return operations.toString();
+    }
+
+    private static String match(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Latencies of one worker; only merged once the workers are done, so it needs no locking.
+     */
+    static final class Stats {
+        private long[] latencies = new long[1024];
+        private int size;
+        long errors;
+        long bytes;
+
+        void record(long latencyNanos, long transferredBytes, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            bytes += transferredBytes;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Stats other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, size + other.size);
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+            bytes += other.bytes;
+        }
+
+        int count() {
+            return size;
+        }
+
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, index))] / 1_000_000.0;
+        }
+    }
+}